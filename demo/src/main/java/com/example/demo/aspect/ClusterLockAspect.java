@@ -0,0 +1,44 @@
+package com.example.demo.aspect;
+
+import com.example.demo.batch.ClusterLockService;
+import com.example.demo.batch.ClusterLocked;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Exécute les méthodes planifiées annotées @ClusterLocked sur une seule instance :
+ * sans le verrou, l'exécution est sautée (la méthode renvoie null).
+ */
+@Aspect
+@Component
+public class ClusterLockAspect {
+    
+    private static final Logger log = Logger.getLogger(ClusterLockAspect.class.getName());
+    
+    private final ClusterLockService clusterLockService;
+    
+    public ClusterLockAspect(ClusterLockService clusterLockService) {
+        this.clusterLockService = clusterLockService;
+    }
+    
+    @Around("@annotation(clusterLocked) && within(com.example.demo.batch..*)")
+    public Object runLocked(ProceedingJoinPoint joinPoint, ClusterLocked clusterLocked) throws Throwable {
+        Duration lockAtMostFor = Duration.parse(clusterLocked.lockAtMostFor());
+        Duration lockAtLeastFor = Duration.parse(clusterLocked.lockAtLeastFor());
+        Optional<ClusterLockService.Lease> lease = clusterLockService.tryAcquire(clusterLocked.name(), lockAtMostFor);
+        if (lease.isEmpty()) {
+            log.info("Verrou '" + clusterLocked.name() + "' tenu par une autre instance, exécution ignorée");
+            return null;
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            clusterLockService.release(lease.get(), lockAtLeastFor);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Mesure des méthodes du service : un Timer (histogramme et percentiles) par méthode et un
+ * compteur d'erreurs par type d'exception. Aucun argument n'est lu ni converti en texte ;
+ * les appels HTTP sont déjà mesurés par http.server.requests.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final Logger log = Logger.getLogger(MetricsAspect.class.getName());
+    private static final String TIMER_NAME = "app.service.calls";
+    private static final String ERROR_COUNTER_NAME = "app.service.errors";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final boolean slowCallLogEnabled;
+    private final long slowCallThresholdNanos;
+    private final double slowCallSampleRate;
+
+    public MetricsAspect(MeterRegistry registry,
+                         @Value("${metrics.slow-call.enabled:false}") boolean slowCallLogEnabled,
+                         @Value("${metrics.slow-call.threshold:500ms}") Duration slowCallThreshold,
+                         @Value("${metrics.slow-call.sample-rate:0.1}") double slowCallSampleRate) {
+        this.registry = registry;
+        this.slowCallLogEnabled = slowCallLogEnabled;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.slowCallSampleRate = slowCallSampleRate;
+    }
+
+    /**
+     * Pointcut pour toutes les méthodes du service
+     */
+    @Pointcut("execution(* com.example.demo.service.*.*(..))")
+    public void serviceLayer() {}
+
+    @Around("serviceLayer()")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            registry.counter(ERROR_COUNTER_NAME,
+                "class", method.getDeclaringClass().getSimpleName(),
+                "method", method.getName(),
+                "exception", e.getClass().getSimpleName()).increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timers.computeIfAbsent(method, this::timerFor).record(elapsed, TimeUnit.NANOSECONDS);
+            if (slowCallLogEnabled && elapsed >= slowCallThresholdNanos
+                    && ThreadLocalRandom.current().nextDouble() < slowCallSampleRate) {
+                log.warning("Appel lent: " + method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                    + "() en " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+            }
+        }
+    }
+
+    private Timer timerFor(Method method) {
+        return Timer.builder(TIMER_NAME)
+            .description("Durée des appels aux méthodes du service")
+            .tag("class", method.getDeclaringClass().getSimpleName())
+            .tag("method", method.getName())
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Découpe les adhérents actifs en plages d'identifiants contiguës, une par partition
+ */
+public class AdherentIdRangePartitioner implements Partitioner {
+    
+    static final String MIN_ID = "minId";
+    static final String MAX_ID = "maxId";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public AdherentIdRangePartitioner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, Long> bounds = jdbcTemplate.queryForObject(
+            "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM adherents WHERE status = 'ACTIVE'",
+            (rs, rowNum) -> {
+                Map<String, Long> range = new LinkedHashMap<>();
+                range.put(MIN_ID, rs.getObject("min_id") != null ? rs.getLong("min_id") : null);
+                range.put(MAX_ID, rs.getObject("max_id") != null ? rs.getLong("max_id") : null);
+                return range;
+            });
+        return split(bounds.get(MIN_ID), bounds.get(MAX_ID), gridSize);
+    }
+    
+    /**
+     * Plages [min, max] couvrant exactement l'intervalle, sans chevauchement
+     */
+    static Map<String, ExecutionContext> split(Long min, Long max, int gridSize) {
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+        if (min == null || max == null) {
+            // Aucune ligne : une partition vide pour que le step se termine normalement
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID, 0);
+            context.putLong(MAX_ID, -1);
+            partitions.put("partition0", context);
+            return partitions;
+        }
+        long size = (max - min) / Math.max(1, gridSize) + 1;
+        long start = min;
+        int number = 0;
+        while (start <= max) {
+            long end = Math.min(max, start + size - 1);
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID, start);
+            context.putLong(MAX_ID, end);
+            partitions.put("partition" + number++, context);
+            start = end + 1;
+        }
+        return partitions;
+    }
+}
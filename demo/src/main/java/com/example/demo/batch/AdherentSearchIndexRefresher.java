@@ -0,0 +1,31 @@
+package com.example.demo.batch;
+
+import com.example.demo.service.AdherentService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.logging.Logger;
+
+/**
+ * Relit périodiquement les adhérents modifiés pour que l'index de recherche de chaque instance
+ * reflète aussi les écritures faites sur les autres
+ */
+@Component
+public class AdherentSearchIndexRefresher {
+    
+    private static final Logger log = Logger.getLogger(AdherentSearchIndexRefresher.class.getName());
+    
+    private final AdherentService adherentService;
+    
+    public AdherentSearchIndexRefresher(AdherentService adherentService) {
+        this.adherentService = adherentService;
+    }
+    
+    @Scheduled(fixedDelayString = "${search.index.poll-ms:5000}")
+    public void pollChanges() {
+        try {
+            adherentService.pollSearchIndexChanges();
+        } catch (Exception e) {
+            log.warning("Relecture de l'index de recherche impossible: " + e.getMessage());
+        }
+    }
+}
@@ -1,61 +1,129 @@
 package com.example.demo.batch;
 
-import com.example.demo.service.AdherentService;
+import com.example.demo.service.EligibilitySnapshot;
+import com.example.demo.service.MembershipCounterService;
 
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.core.step.tasklet.Tasklet;
-import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
-import java.util.logging.Logger;
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
 
 /**
- * Configuration des tâches Batch pour le traitement des abonnements expirés
+ * Configuration du job d'expiration des adhésions.
+ *
+ * Le step maître découpe les adhérents actifs en plages d'identifiants traitées en parallèle ;
+ * chaque partition lit par pages (clé id, sans OFFSET) et valide un chunk à la fois, de sorte
+ * qu'une reprise repart du dernier chunk validé et qu'aucun verrou n'est tenu au-delà d'un chunk.
  */
 @Configuration
 public class BatchConfig {
-    
-    private static final Logger log = Logger.getLogger(BatchConfig.class.getName());
-    
-    private final AdherentService adherentService;
-    
-    public BatchConfig(AdherentService adherentService) {
-        this.adherentService = adherentService;
+
+    private final int gridSize;
+    private final int chunkSize;
+
+    public BatchConfig(@Value("${batch.expiration.grid-size:4}") int gridSize,
+                       @Value("${batch.expiration.chunk-size:500}") int chunkSize) {
+        this.gridSize = Math.max(1, gridSize);
+        this.chunkSize = Math.max(1, chunkSize);
     }
-    
+
     /**
-     * Tasklet pour traiter les abonnements expirés
+     * Adhérents actifs de la plage dont l'adhésion (ou, à défaut, la formule) est terminée à la date du run
      */
     @Bean
-    public Tasklet processExpiredSubscriptionsTasklet() {
-        return (contribution, chunkContext) -> {
-            log.info("Démarrage du traitement des abonnements expirés");
-            adherentService.processExpiredSubscriptions();
-            log.info("Traitement des abonnements expirés terminé");
-            return RepeatStatus.FINISHED;
-        };
+    @StepScope
+    public JdbcPagingItemReader<ExpiringAdherent> expiringAdherentReader(
+            DataSource dataSource,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId,
+            @Value("#{jobParameters['runDate']}") LocalDate runDate) {
+        return new JdbcPagingItemReaderBuilder<ExpiringAdherent>()
+            .name("expiringAdherentReader")
+            .dataSource(dataSource)
+            .selectClause("SELECT a.id, COALESCE(m.end_date, s.end_date) AS end_date")
+            .fromClause("FROM adherents a " +
+                "LEFT JOIN memberships m ON m.id = a.membership_id " +
+                "LEFT JOIN subscriptions s ON s.id = a.subscription_id")
+            .whereClause("a.status = 'ACTIVE' AND a.id BETWEEN :minId AND :maxId " +
+                "AND (m.end_date < :runDate OR (a.membership_id IS NULL AND s.end_date < :runDate))")
+            .sortKeys(Map.of("a.id", Order.ASCENDING))
+            .parameterValues(Map.of("minId", minId, "maxId", maxId, "runDate", Date.valueOf(runDate)))
+            .pageSize(chunkSize)
+            .rowMapper((rs, rowNum) -> new ExpiringAdherent(rs.getLong("id"), rs.getObject("end_date", LocalDate.class)))
+            .build();
     }
-    
+
     /**
-     * Step pour traiter les abonnements expirés
+     * Retient les adhérents à passer EXPIRED (fin strictement antérieure à la date du run)
      */
     @Bean
-    public Step processExpiredSubscriptionsStep(
-            JobRepository jobRepository,
-            PlatformTransactionManager transactionManager) {
+    @StepScope
+    public ItemProcessor<ExpiringAdherent, Long> expirationProcessor(
+            @Value("#{jobParameters['runDate']}") LocalDate runDate) {
+        return item -> item.endDate() != null && item.endDate().isBefore(runDate) ? item.id() : null;
+    }
+
+    @Bean
+    public ExpiredAdherentWriter expiredAdherentWriter(NamedParameterJdbcTemplate jdbcTemplate,
+                                                       MembershipCounterService membershipCounterService,
+                                                       EligibilitySnapshot eligibilitySnapshot) {
+        return new ExpiredAdherentWriter(jdbcTemplate, membershipCounterService, eligibilitySnapshot);
+    }
+
+    /**
+     * Step d'une partition : lecture paginée, traitement et écriture par chunks
+     */
+    @Bean
+    public Step expireAdherentsWorkerStep(JobRepository jobRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          JdbcPagingItemReader<ExpiringAdherent> expiringAdherentReader,
+                                          ItemProcessor<ExpiringAdherent, Long> expirationProcessor,
+                                          ExpiredAdherentWriter expiredAdherentWriter) {
+        return new StepBuilder("expireAdherentsWorkerStep", jobRepository)
+            .<ExpiringAdherent, Long>chunk(chunkSize, transactionManager)
+            .reader(expiringAdherentReader)
+            .processor(expirationProcessor)
+            .writer(expiredAdherentWriter)
+            .build();
+    }
+
+    /**
+     * Step maître : une partition par plage d'identifiants, exécutées sur gridSize threads
+     */
+    @Bean
+    public Step processExpiredSubscriptionsStep(JobRepository jobRepository,
+                                                JdbcTemplate jdbcTemplate,
+                                                Step expireAdherentsWorkerStep) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("expiration-");
+        taskExecutor.setConcurrencyLimit(gridSize);
         return new StepBuilder("processExpiredSubscriptionsStep", jobRepository)
-            .tasklet(processExpiredSubscriptionsTasklet(), transactionManager)
+            .partitioner(expireAdherentsWorkerStep.getName(), new AdherentIdRangePartitioner(jdbcTemplate))
+            .step(expireAdherentsWorkerStep)
+            .gridSize(gridSize)
+            .taskExecutor(taskExecutor)
             .build();
     }
-    
+
     /**
      * Job pour traiter les abonnements expirés
-     * À exécuter quotidiennement via un scheduler
+     * À exécuter quotidiennement via un scheduler, avec la date du run comme paramètre identifiant
      */
     @Bean
     public Job processExpiredSubscriptionsJob(
@@ -0,0 +1,101 @@
+package com.example.demo.batch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Verrous des tâches planifiées, stockés dans la table scheduler_locks.
+ *
+ * Un verrou est un bail : il est pris par une instruction conditionnelle (échéance passée ou ligne
+ * absente), porte l'identité de l'instance qui le tient et expire de lui-même à lockAtMostFor,
+ * ce qui le libère si l'instance s'arrête sans le rendre.
+ * Les dates sont calculées par la base (horloge unique, en UTC) : les instances ne comparent
+ * jamais l'échéance à leur propre horloge ni à leur fuseau par défaut.
+ * Chaque instruction est validée seule, hors de toute transaction appelante.
+ */
+@Service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ClusterLockService {
+    
+    // Horloge de la base ramenée en UTC, indépendante du fuseau de session de chaque instance
+    private static final String DB_NOW = "CAST(CURRENT_TIMESTAMP AT TIME ZONE 'UTC' AS TIMESTAMP)";
+    private static final String SECONDS = "? * INTERVAL '1' SECOND";
+    
+    private static final String ACQUIRE_SQL =
+        "UPDATE scheduler_locks SET locked_until = " + DB_NOW + " + " + SECONDS + ", locked_at = " + DB_NOW +
+        ", locked_by = ? WHERE name = ? AND locked_until <= " + DB_NOW;
+    private static final String INSERT_SQL =
+        "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) " +
+        "VALUES (?, " + DB_NOW + " + " + SECONDS + ", " + DB_NOW + ", ?)";
+    private static final String LOCKED_AT_SQL =
+        "SELECT locked_at FROM scheduler_locks WHERE name = ? AND locked_by = ?";
+    private static final String RELEASE_SQL =
+        "UPDATE scheduler_locks SET locked_until = GREATEST(locked_at + " + SECONDS + ", " + DB_NOW + ") " +
+        "WHERE name = ? AND locked_by = ? AND locked_at = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final String instanceId;
+    
+    public ClusterLockService(JdbcTemplate jdbcTemplate,
+                              @Value("${scheduler.lock.instance-id:}") String instanceId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.instanceId = instanceId == null || instanceId.isBlank() ? defaultInstanceId() : instanceId;
+    }
+    
+    /**
+     * Bail obtenu : le couple (nom, date de prise) identifie la prise à libérer
+     */
+    public record Lease(String name, String holder, LocalDateTime lockedAt) {}
+    
+    /**
+     * Tente de prendre le verrou pour au plus lockAtMostFor
+     * @return le bail, ou vide si une autre prise est encore valide
+     */
+    public Optional<Lease> tryAcquire(String name, Duration lockAtMostFor) {
+        double seconds = toSeconds(lockAtMostFor);
+        if (jdbcTemplate.update(ACQUIRE_SQL, seconds, instanceId, name) != 1) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, name, seconds, instanceId);
+            } catch (DuplicateKeyException e) {
+                // Ligne existante et bail encore valide, ou insérée entre-temps par une autre instance
+                return Optional.empty();
+            }
+        }
+        // Date de prise fixée par la base, relue telle quelle (sans passer par le fuseau de la JVM)
+        // pour identifier ce bail à la libération
+        LocalDateTime lockedAt = jdbcTemplate.queryForObject(LOCKED_AT_SQL, LocalDateTime.class, name, instanceId);
+        return Optional.of(new Lease(name, instanceId, lockedAt));
+    }
+    
+    /**
+     * Rend le verrou, en le gardant au moins jusqu'à lockedAt + lockAtLeastFor.
+     * Sans effet si le bail a expiré et a été repris depuis.
+     */
+    public void release(Lease lease, Duration lockAtLeastFor) {
+        jdbcTemplate.update(RELEASE_SQL, toSeconds(lockAtLeastFor), lease.name(), lease.holder(),
+            lease.lockedAt());
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+    
+    // Durée en secondes, à la milliseconde près, multipliée par INTERVAL '1' SECOND côté SQL
+    private static double toSeconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+    
+    // Nom JVM (pid@hôte) complété d'un suffixe propre à ce démarrage
+    private static String defaultInstanceId() {
+        return ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
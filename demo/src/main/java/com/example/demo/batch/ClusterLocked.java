@@ -0,0 +1,31 @@
+package com.example.demo.batch;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Réserve l'exécution d'une méthode planifiée à une seule instance du cluster à la fois.
+ * Les autres instances sautent l'exécution tant que le verrou est tenu.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterLocked {
+    
+    /**
+     * Nom du verrou, partagé par toutes les instances
+     */
+    String name();
+    
+    /**
+     * Durée maximale du bail (ISO-8601) : libération automatique si l'instance s'arrête
+     */
+    String lockAtMostFor() default "PT1H";
+    
+    /**
+     * Durée minimale pendant laquelle le verrou reste pris, même si la tâche se termine plus tôt,
+     * pour qu'une instance au déclenchement légèrement décalé ne relance pas la même exécution
+     */
+    String lockAtLeastFor() default "PT1M";
+}
@@ -0,0 +1,59 @@
+package com.example.demo.batch;
+
+import com.example.demo.service.EligibilitySnapshot;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.logging.Logger;
+
+/**
+ * Construit l'instantané d'éligibilité au démarrage, puis le reconstruit périodiquement
+ * ou à la demande (modification des dates d'une formule, import en masse) ; entre deux
+ * reconstructions, les modifications des autres instances sont relues en base
+ */
+@Component
+public class EligibilitySnapshotRebuilder {
+    
+    private static final Logger log = Logger.getLogger(EligibilitySnapshotRebuilder.class.getName());
+    
+    private final EligibilitySnapshot eligibilitySnapshot;
+    
+    public EligibilitySnapshotRebuilder(EligibilitySnapshot eligibilitySnapshot) {
+        this.eligibilitySnapshot = eligibilitySnapshot;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSnapshot() {
+        rebuild();
+    }
+    
+    @Scheduled(cron = "${access.snapshot.rebuild-cron:0 0 * * * ?}")
+    public void rebuildSnapshot() {
+        rebuild();
+    }
+    
+    /**
+     * Reconstruit si demandé, sinon relit les adhérents modifiés entre-temps (y compris par les autres instances)
+     */
+    @Scheduled(fixedDelayString = "${access.snapshot.request-check-ms:5000}")
+    public void rebuildIfRequested() {
+        if (eligibilitySnapshot.consumeRebuildRequest()) {
+            rebuild();
+            return;
+        }
+        try {
+            eligibilitySnapshot.pollChanges();
+        } catch (Exception e) {
+            log.warning("Relecture des adhérents modifiés impossible: " + e.getMessage());
+        }
+    }
+    
+    private void rebuild() {
+        try {
+            eligibilitySnapshot.rebuild();
+        } catch (Exception e) {
+            log.severe("Erreur lors de la reconstruction de l'instantané d'éligibilité: " + e.getMessage());
+        }
+    }
+}
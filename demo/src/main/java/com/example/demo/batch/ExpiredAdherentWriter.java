@@ -0,0 +1,49 @@
+package com.example.demo.batch;
+
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.service.EligibilitySnapshot;
+import com.example.demo.service.MembershipCounterService;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Passe un chunk d'adhérents à EXPIRED en une seule instruction, dans la transaction du chunk.
+ * La condition sur le statut ignore ceux modifiés entre-temps (suspension, désactivation).
+ */
+public class ExpiredAdherentWriter implements ItemWriter<Long> {
+    
+    private static final String EXPIRE_SQL =
+        "UPDATE adherents SET status = 'EXPIRED', updated_at = :now, version = version + 1 " +
+        "WHERE id IN (:ids) AND status = 'ACTIVE'";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MembershipCounterService membershipCounterService;
+    private final EligibilitySnapshot eligibilitySnapshot;
+    
+    public ExpiredAdherentWriter(NamedParameterJdbcTemplate jdbcTemplate,
+                                 MembershipCounterService membershipCounterService,
+                                 EligibilitySnapshot eligibilitySnapshot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.membershipCounterService = membershipCounterService;
+        this.eligibilitySnapshot = eligibilitySnapshot;
+    }
+    
+    @Override
+    public void write(Chunk<? extends Long> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", chunk.getItems())
+            .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        int expired = jdbcTemplate.update(EXPIRE_SQL, params);
+        if (expired > 0) {
+            membershipCounterService.recordTransition(AdherentStatus.ACTIVE, AdherentStatus.EXPIRED, expired);
+            eligibilitySnapshot.requestRebuild();
+        }
+    }
+}
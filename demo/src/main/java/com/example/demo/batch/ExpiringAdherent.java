@@ -0,0 +1,9 @@
+package com.example.demo.batch;
+
+import java.time.LocalDate;
+
+/**
+ * Adhérent actif lu par le job d'expiration, avec la fin de son adhésion
+ */
+public record ExpiringAdherent(Long id, LocalDate endDate) {
+}
@@ -0,0 +1,42 @@
+package com.example.demo.batch;
+
+import com.example.demo.service.MembershipCounterService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.logging.Logger;
+
+/**
+ * Initialise les compteurs d'adhésion au démarrage puis corrige périodiquement leur dérive
+ */
+@Component
+public class MembershipCounterReconciler {
+    
+    private static final Logger log = Logger.getLogger(MembershipCounterReconciler.class.getName());
+    
+    private final MembershipCounterService membershipCounterService;
+    
+    public MembershipCounterReconciler(MembershipCounterService membershipCounterService) {
+        this.membershipCounterService = membershipCounterService;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        membershipCounterService.reconcile();
+        log.info("Compteurs d'adhésion initialisés: " + membershipCounterService.getCounts());
+    }
+    
+    /**
+     * Réconciliation périodique (toutes les 15 minutes par défaut), sur une seule instance du cluster
+     */
+    @Scheduled(cron = "${reports.counters.reconcile-cron:0 */15 * * * ?}")
+    @ClusterLocked(name = "reconcileMembershipCounters", lockAtMostFor = "PT10M", lockAtLeastFor = "PT1M")
+    public void reconcileCounters() {
+        try {
+            membershipCounterService.reconcile();
+        } catch (Exception e) {
+            log.severe("Erreur lors de la réconciliation des compteurs: " + e.getMessage());
+        }
+    }
+}
@@ -4,13 +4,15 @@ import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import java.time.LocalDate;
 import java.util.logging.Logger;
 
 /**
  * Scheduler pour exécuter automatiquement le job de traitement des abonnements expirés
- * S'exécute tous les jours à minuit
+ * S'exécute tous les jours à minuit, sur une seule instance (verrou partagé en base)
  */
 @Component
 public class SubscriptionExpirationScheduler {
@@ -29,19 +31,24 @@ public class SubscriptionExpirationScheduler {
     /**
      * Exécute le job tous les jours à minuit (0h00)
      * Cron expression: seconde minute heure jour mois jour-semaine
+     * La date du run identifie l'instance : relancer le même jour reprend un run échoué
+     * au dernier chunk validé de chaque partition.
      */
-    @Scheduled(cron = "0 0 0 * * ?")
+    @Scheduled(cron = "${batch.expiration.cron:0 0 0 * * ?}")
+    @ClusterLocked(name = "processExpiredSubscriptionsJob", lockAtMostFor = "PT6H", lockAtLeastFor = "PT5M")
     public void scheduleExpiredSubscriptionsJob() {
         try {
             log.info("🔄 Lancement automatique du job de traitement des abonnements expirés");
             
             JobParameters params = new JobParametersBuilder()
-                .addLong("time", System.currentTimeMillis())
+                .addLocalDate("runDate", LocalDate.now())
                 .toJobParameters();
             
             jobLauncher.run(processExpiredSubscriptionsJob, params);
             
             log.info("✅ Job de traitement des abonnements expirés terminé avec succès");
+        } catch (JobInstanceAlreadyCompleteException e) {
+            log.info("Job d'expiration déjà terminé pour aujourd'hui");
         } catch (Exception e) {
             log.severe("❌ Erreur lors de l'exécution du job: " + e.getMessage());
             e.printStackTrace();
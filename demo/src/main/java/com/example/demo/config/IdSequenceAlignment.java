@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Aligne les séquences d'identifiants sur les identifiants existants (tables créées autrefois
+ * avec des colonnes IDENTITY), avant toute insertion au démarrage
+ */
+@Configuration
+public class IdSequenceAlignment {
+
+    private static final Logger log = Logger.getLogger(IdSequenceAlignment.class.getName());
+
+    // Doit correspondre à allocationSize des @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "adherents", "adherents_seq",
+        "subscriptions", "subscriptions_seq",
+        "users", "users_seq"
+    );
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner alignIdSequences(JdbcTemplate jdbcTemplate) {
+        return args -> SEQUENCES.forEach((table, sequence) -> align(jdbcTemplate, table, sequence));
+    }
+
+    void align(JdbcTemplate jdbcTemplate, String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+        // Avec l'optimiseur pooled, nextval = v réserve ]v - 50, v] : déjà sûr si last_value >= maxId
+        if (maxId == null || lastValue == null || lastValue >= maxId) {
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT setval('" + sequence + "', ?)", Long.class, maxId + ALLOCATION_SIZE);
+        log.info("Séquence " + sequence + " alignée sur " + table + " (max id " + maxId + ")");
+    }
+}
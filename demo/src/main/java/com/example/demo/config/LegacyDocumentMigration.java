@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import com.example.demo.model.dto.StoredDocument;
+import com.example.demo.service.DocumentStorageService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Déplace les anciens certificats/photos stockés en BYTEA dans la table adherents
+ * vers le stockage de documents, un adhérent à la fois, puis vide les colonnes d'origine
+ */
+@Configuration
+@ConditionalOnProperty(name = "storage.documents.migrate-legacy", havingValue = "true", matchIfMissing = true)
+public class LegacyDocumentMigration {
+
+    private static final Logger log = Logger.getLogger(LegacyDocumentMigration.class.getName());
+
+    @Bean
+    public CommandLineRunner migrateLegacyDocuments(JdbcTemplate jdbcTemplate,
+                                                    DocumentStorageService documentStorageService) {
+        return args -> migrate(jdbcTemplate, documentStorageService);
+    }
+
+    void migrate(JdbcTemplate jdbcTemplate, DocumentStorageService documentStorageService) {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_name = 'adherents' AND column_name IN ('medical_certificate', 'photo')",
+            Integer.class);
+        if (legacyColumns == null || legacyColumns < 2) {
+            return;
+        }
+
+        // L'ancienne colonne était NOT NULL : les nouveaux adhérents ne la renseignent plus
+        jdbcTemplate.execute("ALTER TABLE adherents ALTER COLUMN medical_certificate DROP NOT NULL");
+
+        List<Long> ids = jdbcTemplate.queryForList(
+            "SELECT id FROM adherents WHERE medical_certificate IS NOT NULL OR photo IS NOT NULL",
+            Long.class);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        log.info("Migration des documents de " + ids.size() + " adhérents vers le stockage de documents");
+        for (Long id : ids) {
+            jdbcTemplate.query("SELECT medical_certificate, photo FROM adherents WHERE id = ?", rs -> {
+                StoredDocument certificate = store(rs.getBinaryStream("medical_certificate"), documentStorageService);
+                StoredDocument photo = store(rs.getBinaryStream("photo"), documentStorageService);
+                jdbcTemplate.update(
+                    "UPDATE adherents SET " +
+                    "medical_certificate_ref = COALESCE(?, medical_certificate_ref), " +
+                    "medical_certificate_size = COALESCE(?, medical_certificate_size), " +
+                    "medical_certificate_type = COALESCE(?, medical_certificate_type), " +
+                    "photo_ref = COALESCE(?, photo_ref), " +
+                    "photo_size = COALESCE(?, photo_size), " +
+                    "photo_type = COALESCE(?, photo_type), " +
+                    "medical_certificate = NULL, photo = NULL, updated_at = now() " +
+                    "WHERE id = ?",
+                    certificate != null ? certificate.ref() : null,
+                    certificate != null ? certificate.size() : null,
+                    certificate != null ? certificate.contentType() : null,
+                    photo != null ? photo.ref() : null,
+                    photo != null ? photo.size() : null,
+                    photo != null ? photo.contentType() : null,
+                    id);
+            }, id);
+        }
+        log.info("Migration des documents terminée");
+    }
+
+    private StoredDocument store(InputStream content, DocumentStorageService documentStorageService) {
+        if (content == null) {
+            return null;
+        }
+        try (content) {
+            StoredDocument document = documentStorageService.store(content);
+            return document.size() > 0 ? document : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du document existant impossible", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.logging.Logger;
+
+/**
+ * Crée l'adhésion manquante des adhérents antérieurs aux adhésions (formule rattachée mais
+ * aucune ligne memberships) à partir des dates de leur formule : sans elle, toute réservation
+ * leur serait refusée. Sans effet une fois les adhérents repris.
+ */
+@Configuration
+public class LegacyMembershipBackfill {
+
+    private static final Logger log = Logger.getLogger(LegacyMembershipBackfill.class.getName());
+
+    /**
+     * Chaque ligne prend directement une valeur de nextval : l'optimiseur pooled n'utilise que
+     * les identifiants ]v - 50, v] des valeurs qu'il a lui-même tirées, aucun chevauchement possible
+     */
+    private static final String BACKFILL_SQL =
+        "WITH legacy AS (" +
+        "  SELECT a.id AS adherent_id, s.id AS subscription_id, " +
+        "         COALESCE(s.start_date, CAST(a.created_at AS date)) AS start_date, s.end_date, " +
+        "         COALESCE(s.weekly_sessions_limit, CASE s.type WHEN 'PREMIUM' THEN 2147483647 ELSE 3 END) AS weekly_limit " +
+        "  FROM adherents a JOIN subscriptions s ON s.id = a.subscription_id " +
+        "  WHERE a.membership_id IS NULL" +
+        "), inserted AS (" +
+        "  INSERT INTO memberships (id, adherent_id, subscription_id, start_date, end_date, " +
+        "                           weekly_sessions_limit, created_at, updated_at) " +
+        "  SELECT nextval('memberships_seq'), adherent_id, subscription_id, start_date, end_date, " +
+        "         weekly_limit, now(), now() " +
+        "  FROM legacy " +
+        "  RETURNING id, adherent_id" +
+        ") " +
+        "UPDATE adherents a SET membership_id = i.id, version = a.version + 1, updated_at = now() " +
+        "FROM inserted i WHERE a.id = i.adherent_id";
+
+    @Bean
+    public CommandLineRunner backfillLegacyMemberships(JdbcTemplate jdbcTemplate) {
+        return args -> backfill(jdbcTemplate);
+    }
+
+    void backfill(JdbcTemplate jdbcTemplate) {
+        int backfilled = jdbcTemplate.update(BACKFILL_SQL);
+        if (backfilled > 0) {
+            log.info("Adhésions créées pour " + backfilled + " adhérents à partir de leur formule");
+        }
+    }
+}
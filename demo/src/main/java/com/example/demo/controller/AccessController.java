@@ -0,0 +1,30 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.dto.EligibilityVerdict;
+import com.example.demo.service.EligibilitySnapshot;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Contrôle d'accès des portiques : réponse servie depuis l'instantané en mémoire
+ */
+@RestController
+@RequestMapping("/api/access")
+public class AccessController {
+    
+    private final EligibilitySnapshot eligibilitySnapshot;
+    
+    public AccessController(EligibilitySnapshot eligibilitySnapshot) {
+        this.eligibilitySnapshot = eligibilitySnapshot;
+    }
+    
+    @GetMapping("/{adherentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EligibilityVerdict> checkAccess(@PathVariable long adherentId) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(eligibilitySnapshot.lookup(adherentId));
+    }
+}
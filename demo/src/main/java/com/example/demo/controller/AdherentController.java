@@ -1,27 +1,65 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.dto.AdherentSuggestion;
+import com.example.demo.model.dto.AdherentSummary;
+import com.example.demo.model.dto.BulkResult;
+import com.example.demo.model.dto.BulkStatusRequest;
+import com.example.demo.model.dto.CursorPage;
+import com.example.demo.model.dto.EligibilityVerdict;
+import com.example.demo.model.dto.ImportReport;
+import com.example.demo.model.dto.StoredDocument;
 import com.example.demo.model.entity.Adherent;
 import com.example.demo.model.entity.Subscription;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.service.AdherentExportService;
+import com.example.demo.service.AdherentImportService;
 import com.example.demo.service.AdherentService;
+import com.example.demo.service.DocumentStorageService;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/adherents")
 @Validated
 public class AdherentController {
     
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_SUMMARY = "summary";
+    
     private final AdherentService adherentService;
+    private final DocumentStorageService documentStorageService;
+    private final AdherentImportService adherentImportService;
+    private final AdherentExportService adherentExportService;
     
-    public AdherentController(AdherentService adherentService) {
+    public AdherentController(AdherentService adherentService, DocumentStorageService documentStorageService,
+                              AdherentImportService adherentImportService,
+                              AdherentExportService adherentExportService) {
         this.adherentService = adherentService;
+        this.documentStorageService = documentStorageService;
+        this.adherentImportService = adherentImportService;
+        this.adherentExportService = adherentExportService;
     }
     
     // ===== CRÉATION =====
@@ -32,22 +70,69 @@ public class AdherentController {
         Adherent saved = adherentService.createAdherent(adherent);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
+
+    /**
+     * Import en masse (CSV avec en-tête ou NDJSON), lu en continu depuis le corps de la requête
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importAdherents(@RequestParam(required = false) String format,
+                                                       HttpServletRequest request) throws IOException {
+        String resolved = AdherentImportService.resolveFormat(format, request.getContentType());
+        return ResponseEntity.ok(adherentImportService.importAdherents(request.getInputStream(), resolved));
+    }
     // ===== LECTURE =====
+
+    /**
+     * Export complet de l'annuaire (CSV ou NDJSON), écrit au fil de la lecture
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAdherents(@RequestParam(defaultValue = "csv") String format,
+                                                                 @RequestParam(required = false) String status) {
+        String resolvedFormat = AdherentExportService.resolveFormat(format);
+        AdherentStatus resolvedStatus = AdherentExportService.resolveStatus(status);
+        boolean csv = AdherentExportService.FORMAT_CSV.equals(resolvedFormat);
+        StreamingResponseBody body = out -> adherentExportService.export(resolvedFormat, resolvedStatus, out);
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"adherents." + resolvedFormat + "\"")
+            .body(body);
+    }
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
     public ResponseEntity<Adherent> getAdherentById(@PathVariable Long id) {
-        return ResponseEntity.ok(adherentService.getAdherentById(id));
+        Adherent adherent = adherentService.getAdherentById(id);
+        return ResponseEntity.ok().eTag(ETags.of(adherent.getVersion())).body(adherent);
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<Adherent>> getAdherents(@RequestParam(defaultValue = "0") int page,
-                                                       @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<Page<?>> getAdherents(@RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "10") int size,
+                                                @RequestParam(defaultValue = VIEW_FULL) String view) {
         Pageable pageable = PageRequest.of(page, size);
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(adherentService.getAllAdherentSummaries(pageable.getPageNumber(), pageable.getPageSize()));
+        }
         Page<Adherent> result = adherentService.getAllAdherents(pageable.getPageNumber(), pageable.getPageSize());
         return ResponseEntity.ok(result);
     }
     
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<AdherentSummary>> scrollAdherents(@RequestParam(required = false) String after,
+                                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(adherentService.getAdherentSummariesAfter(after, limit));
+    }
+    
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AdherentSuggestion>> typeahead(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(adherentService.suggestAdherents(q, limit));
+    }
+    
     @GetMapping("/email/{email}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Adherent> getAdherentByEmail(@PathVariable String email) {
@@ -56,13 +141,20 @@ public class AdherentController {
     
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Adherent>> getAllActiveAdherents() {
+    public ResponseEntity<List<?>> getAllActiveAdherents(@RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(adherentService.getActiveAdherentSummaries());
+        }
         return ResponseEntity.ok(adherentService.getAllActiveAdherents());
     }
     
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Adherent>> searchAdherentsByName(@RequestParam String name) {
+    public ResponseEntity<List<?>> searchAdherentsByName(@RequestParam String name,
+                                                         @RequestParam(defaultValue = VIEW_FULL) String view) {
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(adherentService.searchAdherentSummariesByName(name));
+        }
         return ResponseEntity.ok(adherentService.searchAdherentsByName(name));
     }
     
@@ -73,6 +165,18 @@ public class AdherentController {
         return ResponseEntity.ok(adherentService.updateAdherent(id, updates));
     }
     
+    /**
+     * Modification partielle (JSON Merge Patch) ; If-Match porte la version lue, 409 si elle a changé
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Adherent> patchAdherent(@PathVariable Long id,
+                                                  @RequestBody JsonNode patch,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Adherent saved = adherentService.patchAdherent(id, patch, ETags.parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(saved.getVersion())).body(saved);
+    }
+    
     @PostMapping("/{id}/subscription")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Adherent> assignSubscription(@PathVariable Long id,@RequestBody Subscription sub) {
@@ -112,6 +216,27 @@ public class AdherentController {
         return ResponseEntity.noContent().build();
     }
     
+    /**
+     * Changements de statut groupés : liste d'identifiants ou type d'abonnement, résultat par adhérent
+     */
+    @PostMapping("/bulk/suspend")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> suspendAdherents(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(adherentService.suspendAdherents(request));
+    }
+    
+    @PostMapping("/bulk/reactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> reactivateAdherents(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(adherentService.reactivateAdherents(request));
+    }
+    
+    @PostMapping("/bulk/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> deactivateAdherents(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(adherentService.deactivateAdherents(request));
+    }
+    
     // ===== VÉRIFICATIONS =====
     
     @GetMapping("/{id}/has-active-subscription")
@@ -126,6 +251,15 @@ public class AdherentController {
         return ResponseEntity.ok(adherentService.isEligibleForSession(id));
     }
     
+    /**
+     * Vérification groupée (liste d'identifiants) : verdict et motif par adhérent
+     */
+    @PostMapping("/eligibility")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<Long, EligibilityVerdict>> checkEligibility(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(adherentService.checkEligibility(ids));
+    }
+    
     @GetMapping("/{id}/weekly-session-limit")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
     public ResponseEntity<Integer> getWeeklySessionLimit(@PathVariable Long id) {
@@ -133,11 +267,40 @@ public class AdherentController {
     }
 
     // ===== CERTIFICATS MÉDICAUX =====
+    @PutMapping(value = "/{id}/medical-certificate", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StoredDocument> uploadMedicalCertificate(@PathVariable Long id,
+                                                                   @RequestPart("file") MultipartFile file,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate issuedOn,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryDate) throws IOException {
+        // Le fichier est déjà sur disque (parties multipart), il est relu par blocs
+        try (InputStream content = file.getInputStream()) {
+            return ResponseEntity.ok(adherentService.updateMedicalCertificate(id, content, file.getSize(),
+                issuedOn, expiryDate));
+        }
+    }
+
     @PutMapping("/{id}/medical-certificate")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Adherent> updateMedicalCertificate(@PathVariable Long id, @RequestBody byte[] certificate) {
-        Adherent updated = adherentService.updateMedicalCertificate(id, certificate);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<StoredDocument> updateMedicalCertificate(@PathVariable Long id, HttpServletRequest request,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate issuedOn,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryDate) throws IOException {
+        // Corps brut lu directement depuis la requête ; le type est détecté sur le contenu
+        return ResponseEntity.ok(adherentService.updateMedicalCertificate(id, request.getInputStream(),
+            request.getContentLengthLong(), issuedOn, expiryDate));
+    }
+
+    @GetMapping("/{id}/medical-certificate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadMedicalCertificate(@PathVariable Long id) {
+        return streamDocument(adherentService.getMedicalCertificate(id));
+    }
+
+    @GetMapping("/{id}/photo")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> downloadPhoto(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return streamDocument(adherentService.getPhoto(id, authentication.getName(), isAdmin(authentication)));
     }
 
     @GetMapping("/{id}/medical-certificate-valid")
@@ -148,11 +311,47 @@ public class AdherentController {
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<Adherent>> getAdherentsByStatus(@PathVariable String status, 
-                                                                @RequestParam(defaultValue = "0") int page,
-                                                                @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<Page<?>> getAdherentsByStatus(@PathVariable String status, 
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         @RequestParam(defaultValue = VIEW_FULL) String view) {
         Pageable pageable = PageRequest.of(page, size);
+        if (isSummaryView(view)) {
+            return ResponseEntity.ok(adherentService.getAdherentSummariesByStatus(status, pageable.getPageNumber(), pageable.getPageSize()));
+        }
         Page<Adherent> result = adherentService.getAdherentsByStatus(status, pageable.getPageNumber(), pageable.getPageSize());
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Transmet le document par blocs depuis le stockage, sans le charger en mémoire ;
+     * toujours en pièce jointe, jamais affiché dans la page de l'application
+     */
+    private ResponseEntity<StreamingResponseBody> streamDocument(StoredDocument document) {
+        StreamingResponseBody body = out -> documentStorageService.copyTo(document.ref(), out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(DocumentStorageService.servedContentType(document.contentType())))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().build().toString())
+            .contentLength(document.size())
+            .eTag("\"" + document.ref() + "\"")
+            .body(body);
+    }
+
+    /**
+     * ?view=summary renvoie la projection allégée, ?view=full (défaut) l'entité complète
+     */
+    private static boolean isSummaryView(String view) {
+        if (VIEW_SUMMARY.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Vue invalide: " + view + " (summary ou full)");
+    }
+    
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -9,38 +9,47 @@ import com.example.demo.model.enums.AdherentStatus;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.AdherentRepository;
 import com.example.demo.security.JwtService;
+import com.example.demo.security.LoginService;
+import com.example.demo.service.AdherentService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final UserRepository userRepository;
     private final AdherentRepository adherentRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final AdherentService adherentService;
 
-    public AuthController(AuthenticationManager authenticationManager,
+    public AuthController(LoginService loginService,
                           UserRepository userRepository,
                           AdherentRepository adherentRepository,
                           PasswordEncoder passwordEncoder,
-                          JwtService jwtService) {
-        this.authenticationManager = authenticationManager;
+                          JwtService jwtService,
+                          AdherentService adherentService) {
+        this.loginService = loginService;
         this.userRepository = userRepository;
         this.adherentRepository = adherentRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.adherentService = adherentService;
     }
 
     @PostMapping("/register")
@@ -62,6 +71,7 @@ public class AuthController {
         adherent.setCountry("");
         adherent.setStatus(AdherentStatus.ACTIVE);
         Adherent savedAdherent = adherentRepository.save(adherent);
+        adherentService.adherentCreated(savedAdherent);
 
         // Create User
         User user = new User();
@@ -71,24 +81,39 @@ public class AuthController {
         user.setAdherent(savedAdherent);
         userRepository.save(user);
 
-        String token = jwtService.generateToken(user.getUsername(), user.getRole());
+        String token = jwtService.generateToken(user);
         return ResponseEntity.ok(new AuthResponse(token));
     }
 
+    /**
+     * Connexion : la vérification du mot de passe s'exécute sur le pool de connexion,
+     * le thread Tomcat est libéré pendant l'attente. La limitation est indexée sur l'IP cliente
+     * résolue par le RemoteIpValve (server.forward-headers-strategy=native, proxies de confiance
+     * dans server.tomcat.remoteip.internal-proxies) et non sur l'adresse du répartiteur
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password())
-            );
-            // Get user to retrieve role
-            User user = userRepository.findByUsername(request.username())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            String token = jwtService.generateToken(authentication.getName(), user.getRole());
-            return ResponseEntity.ok(new AuthResponse(token));
-        } catch (AuthenticationException ex) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        return loginService.login(request.username(), request.password(), httpRequest.getRemoteAddr())
+            .thenApply(token -> ResponseEntity.ok(new AuthResponse(token)))
+            .exceptionally(this::loginFailure);
+    }
+
+    private ResponseEntity<AuthResponse> loginFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AuthenticationException) {
             return ResponseEntity.status(401).build();
         }
+        if (cause instanceof ResponseStatusException rse) {
+            return ResponseEntity.status(rse.getStatusCode()).headers(rse.getHeaders()).build();
+        }
+        if (cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        if (cause instanceof RuntimeException re) {
+            throw re;
+        }
+        throw new IllegalStateException(cause);
     }
 
     @PostMapping("/admin/register")
@@ -105,7 +130,7 @@ public class AuthController {
         user.setAdherent(null);
         userRepository.save(user);
 
-        String token = jwtService.generateToken(user.getUsername(), user.getRole());
+        String token = jwtService.generateToken(user);
         return ResponseEntity.ok(new AuthResponse(token));
     }
 }
@@ -0,0 +1,62 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.dto.BookingRequest;
+import com.example.demo.model.dto.BookingView;
+import com.example.demo.service.BookingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingController {
+    
+    private final BookingService bookingService;
+    
+    public BookingController(BookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+    
+    /**
+     * Réserve une séance pour l'adhérent connecté, ou pour adherentId si l'appelant est administrateur
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<BookingView> book(@RequestBody BookingRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        BookingView booking = isAdmin(authentication) && request.adherentId() != null
+            ? bookingService.bookForAdherent(request.sessionId(), request.adherentId())
+            : bookingService.bookForUser(request.sessionId(), authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<Void> cancel(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        bookingService.cancel(id, authentication.getName(), isAdmin(authentication));
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/me")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<List<BookingView>> getMyBookings() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(bookingService.getBookingsForUser(username));
+    }
+    
+    @GetMapping("/adherent/{adherentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BookingView>> getBookingsForAdherent(@PathVariable Long adherentId) {
+        return ResponseEntity.ok(bookingService.getBookingsForAdherent(adherentId));
+    }
+    
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ETag fort portant la version d'une entité ("3"), et lecture de l'en-tête If-Match correspondant
+ */
+final class ETags {
+    
+    private ETags() {
+    }
+    
+    static String of(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+    
+    /**
+     * @return la version attendue, ou null si l'en-tête est absent ou vaut *
+     */
+    static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "En-tête If-Match invalide: " + ifMatch);
+        }
+    }
+}
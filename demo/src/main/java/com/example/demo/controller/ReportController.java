@@ -1,9 +1,13 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.dto.CertificateExpiry;
 import com.example.demo.service.ReportService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,12 +30,14 @@ public class ReportController {
     }
     
     /**
-     * Rapport sur les abonnements et chiffre d'affaires
+     * Rapport sur les abonnements et chiffre d'affaires, éventuellement limité à une période
      */
     @GetMapping("/subscription-statistics")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> getSubscriptionStatistics() {
-        return ResponseEntity.ok(reportService.getSubscriptionStatistics());
+    public ResponseEntity<Map<String, Object>> getSubscriptionStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(reportService.getSubscriptionStatistics(from, to));
     }
     
     /**
@@ -43,6 +49,15 @@ public class ReportController {
         return ResponseEntity.ok(reportService.getMonthlyReport(month, year));
     }
     
+    /**
+     * Rapport annuel : les 12 mois en une seule requête
+     */
+    @GetMapping("/yearly/{year}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getYearlyReport(@PathVariable int year) {
+        return ResponseEntity.ok(reportService.getYearlyReport(year));
+    }
+    
     /**
      * Rapport des adhérents par statut
      */
@@ -51,4 +66,13 @@ public class ReportController {
     public ResponseEntity<Map<String, Object>> getAdherentsByStatusReport() {
         return ResponseEntity.ok(reportService.getAdherentsByStatusReport());
     }
+    
+    /**
+     * Certificats médicaux arrivant à expiration dans les prochains jours
+     */
+    @GetMapping("/certificates-expiring")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CertificateExpiry>> getCertificatesExpiring(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(reportService.getCertificatesExpiring(days));
+    }
 }
@@ -2,16 +2,16 @@ package com.example.demo.controller;
 
 import com.example.demo.model.entity.Subscription;
 import com.example.demo.model.enums.SubscriptionType;
+import com.example.demo.service.SubscriptionCatalogCache;
 import com.example.demo.service.SubscriptionService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/subscriptions")
@@ -19,9 +19,11 @@ import java.util.List;
 public class SubscriptionController {
     
     private final SubscriptionService subscriptionService;
+    private final SubscriptionCatalogCache catalogCache;
     
-    public SubscriptionController(SubscriptionService subscriptionService) {
+    public SubscriptionController(SubscriptionService subscriptionService, SubscriptionCatalogCache catalogCache) {
         this.subscriptionService = subscriptionService;
+        this.catalogCache = catalogCache;
     }
     
     // ===== CRÉATION =====
@@ -37,26 +39,59 @@ public class SubscriptionController {
     // GET endpoints are public (no auth required) so users can browse subscriptions
     
     @GetMapping("/{id}")
-    public ResponseEntity<Subscription> getSubscriptionById(@PathVariable Long id) {
-        return ResponseEntity.ok(subscriptionService.getSubscriptionById(id));
+    public ResponseEntity<byte[]> getSubscriptionById(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(catalogCache.getById(id)
+            .orElseThrow(() -> new RuntimeException("Abonnement non trouvé")), ifNoneMatch);
     }
     
     @GetMapping
-    public ResponseEntity<Page<Subscription>> getSubscriptions(@RequestParam(defaultValue = "0") int page,
-                                                               @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Subscription> result = subscriptionService.getAllSubscriptions(pageable.getPageNumber(), pageable.getPageSize());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<byte[]> getSubscriptions(@RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(catalogCache.getPage(page, size), ifNoneMatch);
     }
     
     @GetMapping("/type/{type}")
-    public ResponseEntity<Subscription> getSubscriptionByType(@PathVariable SubscriptionType type) {
-        return ResponseEntity.ok(subscriptionService.getSubscriptionByType(type));
+    public ResponseEntity<byte[]> getSubscriptionByType(@PathVariable SubscriptionType type,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(catalogCache.getByType(type)
+            .orElseThrow(() -> new RuntimeException("Type d'abonnement non trouvé: " + type)), ifNoneMatch);
     }
     
     @GetMapping("/all-types")
-    public ResponseEntity<List<Subscription>> getAllSubscriptionTypes() {
-        return ResponseEntity.ok(subscriptionService.getAllSubscriptionTypes());
+    public ResponseEntity<byte[]> getAllSubscriptionTypes(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse(catalogCache.getAll(), ifNoneMatch);
+    }
+    
+    /**
+     * Réponse du catalogue : 304 sans corps si l'ETag correspond, sinon le JSON pré-sérialisé
+     */
+    private ResponseEntity<byte[]> catalogResponse(SubscriptionCatalogCache.CatalogEntry entry, String ifNoneMatch) {
+        if (matchesEtag(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entry.etag()).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(entry.etag())
+            .cacheControl(CacheControl.noCache())
+            .body(entry.body());
+    }
+    
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     @GetMapping("/types/available")
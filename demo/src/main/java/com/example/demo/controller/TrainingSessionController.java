@@ -0,0 +1,50 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.entity.TrainingSession;
+import com.example.demo.service.TrainingSessionService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sessions")
+@Validated
+public class TrainingSessionController {
+    
+    private final TrainingSessionService trainingSessionService;
+    
+    public TrainingSessionController(TrainingSessionService trainingSessionService) {
+        this.trainingSessionService = trainingSessionService;
+    }
+    
+    // ===== CRÉATION =====
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrainingSession> createSession(@Valid @RequestBody TrainingSession session) {
+        TrainingSession saved = trainingSessionService.createSession(session);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+    
+    // ===== LECTURE =====
+    
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<List<TrainingSession>> getSessions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(trainingSessionService.getSessions(from, to));
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<TrainingSession> getSessionById(@PathVariable Long id) {
+        return ResponseEntity.ok(trainingSessionService.getSessionById(id));
+    }
+}
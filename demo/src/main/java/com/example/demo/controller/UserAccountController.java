@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.dto.BulkResult;
+import com.example.demo.model.dto.UserBulkRequest;
+import com.example.demo.service.UserAccountService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Administration groupée des comptes utilisateurs
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserAccountController {
+    
+    private final UserAccountService userAccountService;
+    
+    public UserAccountController(UserAccountService userAccountService) {
+        this.userAccountService = userAccountService;
+    }
+    
+    @PostMapping("/bulk/disable")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> disableUsers(@RequestBody UserBulkRequest request) {
+        return ResponseEntity.ok(userAccountService.disableUsers(request, currentUsername()));
+    }
+    
+    @PostMapping("/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkResult> updateRoles(@RequestBody UserBulkRequest request) {
+        return ResponseEntity.ok(userAccountService.updateRoles(request, currentUsername()));
+    }
+    
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
@@ -4,11 +4,19 @@ import com.example.demo.model.entity.Adherent;
 import com.example.demo.model.entity.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.AdherentRepository;
+import com.example.demo.security.JwtService;
+import com.example.demo.security.TokenVersionCache;
+import com.example.demo.service.AdherentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 
@@ -19,13 +27,22 @@ public class UserProfileController {
     private final UserRepository userRepository;
     private final AdherentRepository adherentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AdherentService adherentService;
+    private final JwtService jwtService;
+    private final TokenVersionCache tokenVersionCache;
 
     public UserProfileController(UserRepository userRepository, 
                                  AdherentRepository adherentRepository,
-                                 PasswordEncoder passwordEncoder) {
+                                 PasswordEncoder passwordEncoder,
+                                 AdherentService adherentService,
+                                 JwtService jwtService,
+                                 TokenVersionCache tokenVersionCache) {
         this.userRepository = userRepository;
         this.adherentRepository = adherentRepository;
         this.passwordEncoder = passwordEncoder;
+        this.adherentService = adherentService;
+        this.jwtService = jwtService;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @GetMapping
@@ -33,14 +50,21 @@ public class UserProfileController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
 
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
-        if (user.getAdherent() == null) {
-            return ResponseEntity.notFound().build();
-        }
+        // Adhérent chargé directement (User.adherent est LAZY)
+        return userRepository.findAdherentByUsername(username)
+            .map(adherent -> ResponseEntity.ok().eTag(ETags.of(adherent.getVersion())).body(adherent))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        return ResponseEntity.ok(user.getAdherent());
+    /**
+     * Modification partielle du profil (JSON Merge Patch), avec contrôle de version par If-Match
+     */
+    @PatchMapping(consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Adherent> patchProfile(@RequestBody JsonNode patch,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Adherent saved = adherentService.patchProfile(username, patch, ETags.parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(saved.getVersion())).body(saved);
     }
 
     @PutMapping
@@ -48,10 +72,7 @@ public class UserProfileController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
 
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
-        Adherent adherent = user.getAdherent();
+        Adherent adherent = userRepository.findAdherentByUsername(username).orElse(null);
         if (adherent == null) {
             return ResponseEntity.notFound().build();
         }
@@ -63,10 +84,14 @@ public class UserProfileController {
         if (updatedAdherent.getCity() != null) adherent.setCity(updatedAdherent.getCity());
         if (updatedAdherent.getPostalCode() != null) adherent.setPostalCode(updatedAdherent.getPostalCode());
         if (updatedAdherent.getCountry() != null) adherent.setCountry(updatedAdherent.getCountry());
-        if (updatedAdherent.getPhoto() != null) adherent.setPhoto(updatedAdherent.getPhoto());
-        if (updatedAdherent.getMedicalCertificate() != null) adherent.setMedicalCertificate(updatedAdherent.getMedicalCertificate());
+        // Le certificat n'est déposé que par un administrateur, avec ses dates de validité
+        if (updatedAdherent.getMedicalCertificate() != null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Certificat médical déposé par un administrateur uniquement");
+        }
+        adherentService.storeDocuments(adherent, updatedAdherent);
 
         Adherent saved = adherentRepository.save(adherent);
+        adherentService.adherentUpdated(saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -98,10 +123,15 @@ public class UserProfileController {
                 .body(Map.of("message", "Le nouveau mot de passe doit contenir au moins 8 caractères"));
         }
 
-        // Mettre à jour le mot de passe
+        // Mettre à jour le mot de passe et révoquer les tokens déjà émis
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.incrementTokenVersion();
         userRepository.save(user);
+        tokenVersionCache.invalidate(username);
 
-        return ResponseEntity.ok(Map.of("message", "Mot de passe modifié avec succès"));
+        // Nouveau token pour la session courante
+        return ResponseEntity.ok(Map.of(
+            "message", "Mot de passe modifié avec succès",
+            "token", jwtService.generateToken(user)));
     }
 }
@@ -0,0 +1,9 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.AdherentStatus;
+
+/**
+ * Identifiant et statut d'un adhérent (préparation des changements de statut groupés)
+ */
+public record AdherentStatusRow(Long id, AdherentStatus status) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.model.dto;
+
+/**
+ * Suggestion renvoyée par la recherche instantanée
+ */
+public record AdherentSuggestion(Long id, String displayName, String email) {
+}
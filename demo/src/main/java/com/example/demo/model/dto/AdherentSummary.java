@@ -0,0 +1,17 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.SubscriptionType;
+import java.time.LocalDate;
+
+/**
+ * Vue allégée d'un adhérent pour les listes (aucun document, aucune entité chargée)
+ */
+public record AdherentSummary(Long id,
+                              String firstName,
+                              String lastName,
+                              String email,
+                              AdherentStatus status,
+                              SubscriptionType subscriptionType,
+                              LocalDate subscriptionEndDate) {
+}
@@ -0,0 +1,17 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.AdherentStatus;
+import java.time.LocalDate;
+
+/**
+ * Données nécessaires à une réservation, lues en une requête sans charger l'adhérent
+ */
+public record BookingCandidate(Long adherentId,
+                               AdherentStatus status,
+                               boolean hasMedicalCertificate,
+                               LocalDate medicalCertificateExpiresOn,
+                               Long membershipId,
+                               LocalDate membershipStart,
+                               LocalDate membershipEnd,
+                               Integer weeklySessionsLimit) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.model.dto;
+
+/**
+ * Demande de réservation ; adherentId n'est pris en compte que pour un administrateur
+ */
+public record BookingRequest(Long sessionId, Long adherentId) {
+}
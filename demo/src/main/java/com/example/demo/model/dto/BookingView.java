@@ -0,0 +1,16 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.BookingStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Réservation telle que renvoyée par l'API
+ */
+public record BookingView(Long id,
+                          Long sessionId,
+                          String sessionTitle,
+                          LocalDateTime startsAt,
+                          Long adherentId,
+                          BookingStatus status,
+                          LocalDateTime createdAt) {
+}
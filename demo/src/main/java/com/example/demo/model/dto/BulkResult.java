@@ -0,0 +1,10 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.BulkOutcome;
+import java.util.Map;
+
+/**
+ * Bilan d'une opération groupée : nombre de lignes modifiées et résultat par identifiant
+ */
+public record BulkResult(int requested, int updated, Map<Long, BulkOutcome> outcomes) {
+}
@@ -0,0 +1,11 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.SubscriptionType;
+import java.util.List;
+
+/**
+ * Cible d'un changement de statut groupé : une liste d'identifiants ou, à défaut,
+ * tous les adhérents d'un type d'abonnement
+ */
+public record BulkStatusRequest(List<Long> ids, SubscriptionType subscriptionType, String reason) {
+}
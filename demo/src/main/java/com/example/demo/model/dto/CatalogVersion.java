@@ -0,0 +1,10 @@
+package com.example.demo.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Empreinte du catalogue des abonnements (nombre de formules, plus grand identifiant,
+ * dernière modification) : toute création, modification ou suppression la change
+ */
+public record CatalogVersion(long count, Long maxId, LocalDateTime lastUpdate) {
+}
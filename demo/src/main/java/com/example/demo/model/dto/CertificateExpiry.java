@@ -0,0 +1,14 @@
+package com.example.demo.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne du rapport des certificats médicaux arrivant à expiration
+ */
+public record CertificateExpiry(Long adherentId,
+                                String firstName,
+                                String lastName,
+                                String email,
+                                LocalDate issuedOn,
+                                LocalDate expiresOn) {
+}
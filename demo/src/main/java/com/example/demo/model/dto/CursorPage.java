@@ -0,0 +1,9 @@
+package com.example.demo.model.dto;
+
+import java.util.List;
+
+/**
+ * Page obtenue par curseur : nextCursor est opaque et se repasse tel quel dans ?after=
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,82 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.entity.Membership;
+import com.example.demo.model.entity.Subscription;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.EligibilityReason;
+import java.time.LocalDate;
+
+/**
+ * Colonnes lues pour évaluer l'éligibilité (statut, métadonnées du certificat, dates d'adhésion et de formule)
+ */
+public record EligibilityRow(Long id,
+                             AdherentStatus status,
+                             boolean hasMedicalCertificate,
+                             LocalDate medicalCertificateExpiresOn,
+                             Long membershipId,
+                             LocalDate membershipStart,
+                             LocalDate membershipEnd,
+                             Long subscriptionId,
+                             LocalDate subscriptionStart,
+                             LocalDate subscriptionEnd) {
+    
+    /**
+     * Même lecture à partir d'une entité déjà chargée
+     */
+    public static EligibilityRow of(Adherent adherent) {
+        Membership membership = adherent.getCurrentMembership();
+        Subscription plan = adherent.getCurrentSubscription();
+        return new EligibilityRow(adherent.getId(), adherent.getStatus(), adherent.hasMedicalCertificate(),
+            adherent.getMedicalCertificateExpiresOn(),
+            membership != null ? membership.getId() : null,
+            membership != null ? membership.getStartDate() : null,
+            membership != null ? membership.getEndDate() : null,
+            plan != null ? plan.getId() : null,
+            plan != null ? plan.getStartDate() : null,
+            plan != null ? plan.getEndDate() : null);
+    }
+    
+    /**
+     * Mêmes règles que Adherent.isEligibleForSession() ; les dates de la formule ne servent
+     * que pour les adhérents sans adhésion (rattachés avant l'introduction des adhésions)
+     */
+    public EligibilityReason evaluate(LocalDate day) {
+        EligibilityReason reason = evaluateIgnoringDates();
+        if (reason != EligibilityReason.ELIGIBLE) {
+            return reason;
+        }
+        if (Adherent.certificateExpired(medicalCertificateExpiresOn, day)) {
+            return EligibilityReason.MEDICAL_CERTIFICATE_EXPIRED;
+        }
+        return Membership.coversDate(effectiveStart(), effectiveEnd(), day)
+            ? EligibilityReason.ELIGIBLE : EligibilityReason.SUBSCRIPTION_NOT_ACTIVE;
+    }
+    
+    /**
+     * Verdict hors contrôle des dates : seule la couverture du jour reste à vérifier si ELIGIBLE
+     */
+    public EligibilityReason evaluateIgnoringDates() {
+        if (status == AdherentStatus.SUSPENDED) {
+            return EligibilityReason.SUSPENDED;
+        }
+        if (status != AdherentStatus.ACTIVE) {
+            return EligibilityReason.NOT_ACTIVE;
+        }
+        if (!hasMedicalCertificate) {
+            return EligibilityReason.NO_MEDICAL_CERTIFICATE;
+        }
+        if (membershipId == null && subscriptionId == null) {
+            return EligibilityReason.NO_SUBSCRIPTION;
+        }
+        return EligibilityReason.ELIGIBLE;
+    }
+    
+    public LocalDate effectiveStart() {
+        return membershipId != null ? membershipStart : subscriptionStart;
+    }
+    
+    public LocalDate effectiveEnd() {
+        return membershipId != null ? membershipEnd : subscriptionEnd;
+    }
+}
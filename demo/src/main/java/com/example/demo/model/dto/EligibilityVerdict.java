@@ -0,0 +1,13 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.EligibilityReason;
+
+/**
+ * Verdict d'éligibilité d'un adhérent, avec son motif
+ */
+public record EligibilityVerdict(boolean eligible, EligibilityReason reason) {
+    
+    public static EligibilityVerdict of(EligibilityReason reason) {
+        return new EligibilityVerdict(reason == EligibilityReason.ELIGIBLE, reason);
+    }
+}
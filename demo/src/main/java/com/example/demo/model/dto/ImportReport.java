@@ -0,0 +1,19 @@
+package com.example.demo.model.dto;
+
+import java.util.List;
+
+/**
+ * Résultat d'un import d'adhérents : compteurs et erreurs ligne par ligne
+ */
+public record ImportReport(int totalRows,
+                           int imported,
+                           int rejected,
+                           List<RowError> errors,
+                           boolean errorsTruncated) {
+    
+    /**
+     * Erreur d'une ligne du fichier (numéro de ligne à partir de 1, en-tête CSV compris)
+     */
+    public record RowError(long line, String email, String message) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.model.dto;
+
+/**
+ * Métadonnées d'un document déposé dans le stockage (référence = empreinte SHA-256)
+ */
+public record StoredDocument(String ref, Long size, String contentType) {
+}
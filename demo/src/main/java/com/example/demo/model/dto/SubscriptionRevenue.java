@@ -0,0 +1,12 @@
+package com.example.demo.model.dto;
+
+import com.example.demo.model.enums.SubscriptionType;
+
+/**
+ * Ligne agrégée du rapport de chiffre d'affaires : un couple (type, prix) et ses abonnés
+ */
+public record SubscriptionRevenue(SubscriptionType type,
+                                  Double price,
+                                  Long subscriberCount,
+                                  Double revenue) {
+}
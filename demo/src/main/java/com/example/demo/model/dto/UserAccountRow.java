@@ -0,0 +1,7 @@
+package com.example.demo.model.dto;
+
+/**
+ * Compte utilisateur sans mot de passe ni adhérent (préparation des opérations groupées)
+ */
+public record UserAccountRow(Long id, String username, String role, boolean enabled) {
+}
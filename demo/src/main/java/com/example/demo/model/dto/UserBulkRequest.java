@@ -0,0 +1,9 @@
+package com.example.demo.model.dto;
+
+import java.util.List;
+
+/**
+ * Opération groupée sur des comptes utilisateurs (le rôle n'est lu que pour un changement de rôle)
+ */
+public record UserBulkRequest(List<Long> userIds, String role, String reason) {
+}
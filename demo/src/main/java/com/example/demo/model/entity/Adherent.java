@@ -2,22 +2,33 @@ package com.example.demo.model.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import com.example.demo.model.dto.StoredDocument;
 import com.example.demo.model.enums.AdherentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
- * Entité représentant un adhérent du club sportif
+ * Entité représentant un adhérent du club sportif.
+ * Les UPDATE ne portent que sur les colonnes modifiées et sont conditionnés par la version (verrou optimiste).
  */
 @Entity
+@DynamicUpdate
 @Table(name = "adherents", indexes = {
     @Index(name = "idx_email", columnList = "email", unique = true),
-    @Index(name = "idx_status", columnList = "status")
+    @Index(name = "idx_status", columnList = "status"),
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_medical_certificate_expires_on", columnList = "medical_certificate_expires_on")
 })
 public class Adherent {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence avec optimiseur pooled : 50 identifiants par appel, insertions groupables en batch JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "adherents_seq")
+    @SequenceGenerator(name = "adherents_seq", sequenceName = "adherents_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -58,21 +69,77 @@ public class Adherent {
     @Column
     private String country;
     
-    @Column(columnDefinition = "BYTEA", nullable = false)
-    @NotNull(message = "Le certificat médical est obligatoire")
+    /**
+     * Contenu transmis par le client (base64 en JSON), jamais persisté dans la ligne :
+     * il est déposé dans le stockage de documents puis remplacé par une référence
+     */
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private byte[] medicalCertificate;
     
-    @Column(columnDefinition = "BYTEA")
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private byte[] photo;
     
+    /**
+     * Référence du certificat dans le stockage de documents (empreinte SHA-256 du contenu)
+     */
+    @Column(name = "medical_certificate_ref", length = 64)
+    @JsonIgnore
+    private String medicalCertificateRef;
+    
+    @Column(name = "medical_certificate_size")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long medicalCertificateSize;
+    
+    @Column(name = "medical_certificate_type", length = 100)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String medicalCertificateContentType;
+    
+    @Column(name = "medical_certificate_uploaded_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime medicalCertificateUploadedAt;
+    
+    /**
+     * Dates portées par le certificat (saisies au dépôt ou avec la fiche) : la validité se lit ici,
+     * jamais dans le document
+     */
+    @Column(name = "medical_certificate_issued_on")
+    private LocalDate medicalCertificateIssuedOn;
+    
+    @Column(name = "medical_certificate_expires_on")
+    private LocalDate medicalCertificateExpiresOn;
+    
+    @Column(name = "photo_ref", length = 64)
+    @JsonIgnore
+    private String photoRef;
+    
+    @Column(name = "photo_size")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long photoSize;
+    
+    @Column(name = "photo_type", length = 100)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String photoContentType;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private AdherentStatus status;
     
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    /**
+     * Formule du catalogue : ligne partagée entre adhérents, jamais modifiée par leur activité
+     */
+    @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "subscription_id")
     private Subscription currentSubscription;
     
+    /**
+     * Adhésion en cours (dates et compteur de séances propres à l'adhérent)
+     */
+    @OneToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "membership_id")
+    private Membership currentMembership;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -85,6 +152,14 @@ public class Adherent {
     @Column(name = "suspended_date")
     private LocalDateTime suspendedDate;
     
+    /**
+     * Version pour le verrou optimiste, exposée au client comme ETag
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -103,9 +178,13 @@ public class Adherent {
      * Vérifie si l'adhérent a un abonnement valide et actif
      */
     public boolean hasActiveSubscription() {
-        return status == AdherentStatus.ACTIVE && 
-               currentSubscription != null && 
-               currentSubscription.isActive();
+        if (status != AdherentStatus.ACTIVE) {
+            return false;
+        }
+        if (currentMembership != null) {
+            return currentMembership.isActive();
+        }
+        return currentSubscription != null && currentSubscription.isActive();
     }
 
     /**
@@ -115,7 +194,63 @@ public class Adherent {
     public boolean isEligibleForSession() {
         return hasActiveSubscription() && 
                status != AdherentStatus.SUSPENDED && 
-               medicalCertificate != null;
+               hasValidMedicalCertificate(LocalDate.now());
+    }
+
+    /**
+     * Certificat déposé et non expiré au jour donné (sans date d'expiration connue, il reste valide)
+     */
+    public boolean hasValidMedicalCertificate(LocalDate day) {
+        return hasMedicalCertificate() && !certificateExpired(medicalCertificateExpiresOn, day);
+    }
+
+    public static boolean certificateExpired(LocalDate expiresOn, LocalDate day) {
+        return expiresOn != null && day.isAfter(expiresOn);
+    }
+
+    /**
+     * Indique si un certificat médical a été déposé (sans lire son contenu)
+     */
+    @JsonProperty("hasMedicalCertificate")
+    public boolean hasMedicalCertificate() {
+        return medicalCertificateRef != null;
+    }
+
+    /**
+     * Indique si une photo a été déposée (sans lire son contenu)
+     */
+    @JsonProperty("hasPhoto")
+    public boolean hasPhoto() {
+        return photoRef != null;
+    }
+
+    /**
+     * Rattache un certificat médical déjà enregistré dans le stockage de documents, en conservant
+     * les dates connues (modifiées explicitement par ailleurs)
+     */
+    public void attachMedicalCertificate(StoredDocument document) {
+        attachMedicalCertificate(document, medicalCertificateIssuedOn, medicalCertificateExpiresOn);
+    }
+
+    /**
+     * Rattache un certificat avec ses dates de délivrance et d'expiration (inconnues si null)
+     */
+    public void attachMedicalCertificate(StoredDocument document, LocalDate issuedOn, LocalDate expiresOn) {
+        this.medicalCertificateRef = document.ref();
+        this.medicalCertificateSize = document.size();
+        this.medicalCertificateContentType = document.contentType();
+        this.medicalCertificateUploadedAt = LocalDateTime.now();
+        this.medicalCertificateIssuedOn = issuedOn;
+        this.medicalCertificateExpiresOn = expiresOn;
+    }
+
+    /**
+     * Rattache une photo déjà enregistrée dans le stockage de documents
+     */
+    public void attachPhoto(StoredDocument document) {
+        this.photoRef = document.ref();
+        this.photoSize = document.size();
+        this.photoContentType = document.contentType();
     }
 
     /**
@@ -162,18 +297,51 @@ public class Adherent {
     public byte[] getPhoto() { return photo; }
     public void setPhoto(byte[] photo) { this.photo = photo; }
     
+    public String getMedicalCertificateRef() { return medicalCertificateRef; }
+    public void setMedicalCertificateRef(String medicalCertificateRef) { this.medicalCertificateRef = medicalCertificateRef; }
+    
+    public Long getMedicalCertificateSize() { return medicalCertificateSize; }
+    public void setMedicalCertificateSize(Long medicalCertificateSize) { this.medicalCertificateSize = medicalCertificateSize; }
+    
+    public String getMedicalCertificateContentType() { return medicalCertificateContentType; }
+    public void setMedicalCertificateContentType(String medicalCertificateContentType) { this.medicalCertificateContentType = medicalCertificateContentType; }
+    
+    public LocalDateTime getMedicalCertificateUploadedAt() { return medicalCertificateUploadedAt; }
+    public void setMedicalCertificateUploadedAt(LocalDateTime medicalCertificateUploadedAt) { this.medicalCertificateUploadedAt = medicalCertificateUploadedAt; }
+    
+    public LocalDate getMedicalCertificateIssuedOn() { return medicalCertificateIssuedOn; }
+    public void setMedicalCertificateIssuedOn(LocalDate medicalCertificateIssuedOn) { this.medicalCertificateIssuedOn = medicalCertificateIssuedOn; }
+    
+    public LocalDate getMedicalCertificateExpiresOn() { return medicalCertificateExpiresOn; }
+    public void setMedicalCertificateExpiresOn(LocalDate medicalCertificateExpiresOn) { this.medicalCertificateExpiresOn = medicalCertificateExpiresOn; }
+    
+    public String getPhotoRef() { return photoRef; }
+    public void setPhotoRef(String photoRef) { this.photoRef = photoRef; }
+    
+    public Long getPhotoSize() { return photoSize; }
+    public void setPhotoSize(Long photoSize) { this.photoSize = photoSize; }
+    
+    public String getPhotoContentType() { return photoContentType; }
+    public void setPhotoContentType(String photoContentType) { this.photoContentType = photoContentType; }
+    
     public AdherentStatus getStatus() { return status; }
     public void setStatus(AdherentStatus status) { this.status = status; }
     
     public Subscription getCurrentSubscription() { return currentSubscription; }
     public void setCurrentSubscription(Subscription currentSubscription) { this.currentSubscription = currentSubscription; }
     
+    public Membership getCurrentMembership() { return currentMembership; }
+    public void setCurrentMembership(Membership currentMembership) { this.currentMembership = currentMembership; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public String getSuspendedReason() { return suspendedReason; }
     public void setSuspendedReason(String suspendedReason) { this.suspendedReason = suspendedReason; }
     
@@ -0,0 +1,90 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import com.example.demo.model.enums.BookingStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Réservation d'une séance par un adhérent (une ligne par couple séance/adhérent,
+ * réutilisée si l'adhérent se réinscrit après une annulation)
+ */
+@Entity
+@Table(name = "bookings",
+    uniqueConstraints = @UniqueConstraint(name = "uk_booking_session_adherent", columnNames = {"session_id", "adherent_id"}),
+    indexes = @Index(name = "idx_booking_adherent", columnList = "adherent_id"))
+public class Booking {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "session_id", nullable = false)
+    private TrainingSession session;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "adherent_id", nullable = false)
+    private Adherent adherent;
+    
+    /**
+     * Adhésion débitée : la séance lui est rendue en cas d'annulation
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "membership_id", nullable = false)
+    private Membership membership;
+    
+    // Semaine ISO (AAAASS) de la séance
+    @Column(nullable = false)
+    private int week;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "cancelled_at")
+    private LocalDateTime cancelledAt;
+    
+    public Booking() {}
+    
+    public Booking(TrainingSession session, Adherent adherent, Membership membership, int week) {
+        this.session = session;
+        this.adherent = adherent;
+        this.membership = membership;
+        this.week = week;
+        this.status = BookingStatus.CONFIRMED;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public TrainingSession getSession() { return session; }
+    public void setSession(TrainingSession session) { this.session = session; }
+    
+    public Adherent getAdherent() { return adherent; }
+    public void setAdherent(Adherent adherent) { this.adherent = adherent; }
+    
+    public Membership getMembership() { return membership; }
+    public void setMembership(Membership membership) { this.membership = membership; }
+    
+    public int getWeek() { return week; }
+    public void setWeek(int week) { this.week = week; }
+    
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getCancelledAt() { return cancelledAt; }
+    public void setCancelledAt(LocalDateTime cancelledAt) { this.cancelledAt = cancelledAt; }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+
+/**
+ * Adhésion d'un adhérent à une formule du catalogue : dates et limite de séances propres
+ * à l'adhérent (la ligne Subscription, partagée, n'est plus modifiée par les réservations).
+ * Les séances consommées sont comptées par semaine dans {@link MembershipWeekUsage}.
+ */
+@Entity
+@Table(name = "memberships", indexes = {
+    @Index(name = "idx_membership_adherent", columnList = "adherent_id"),
+    @Index(name = "idx_membership_end_date", columnList = "end_date")
+})
+public class Membership {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "memberships_seq")
+    @SequenceGenerator(name = "memberships_seq", sequenceName = "memberships_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "adherent_id", nullable = false)
+    @JsonIgnore
+    private Adherent adherent;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "subscription_id", nullable = false)
+    @JsonIgnore
+    private Subscription plan;
+    
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+    
+    @Column(name = "end_date")
+    private LocalDate endDate;
+    
+    // Limite copiée de la formule à la souscription
+    @Column(name = "weekly_sessions_limit", nullable = false)
+    private int weeklySessionsLimit;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public Membership() {}
+    
+    public Membership(Adherent adherent, Subscription plan, LocalDate startDate) {
+        this.adherent = adherent;
+        this.plan = plan;
+        this.startDate = startDate;
+        int months = plan.getDurationMonths() != null ? plan.getDurationMonths() : 12;
+        this.endDate = startDate.plusMonths(months);
+        this.weeklySessionsLimit = plan.getWeeklySessionLimit();
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Clé de semaine ISO au format AAAASS (ex. 202542) : sans ambiguïté d'une année sur l'autre
+     */
+    public static int weekKey(LocalDate date) {
+        return date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+    
+    public boolean isActive() {
+        return coversDate(LocalDate.now());
+    }
+    
+    /**
+     * Indique si l'adhésion couvre le jour donné (bornes incluses)
+     */
+    public static boolean coversDate(LocalDate startDate, LocalDate endDate, LocalDate day) {
+        if (startDate != null && day.isBefore(startDate)) {
+            return false;
+        }
+        return endDate == null || !day.isAfter(endDate);
+    }
+    
+    public boolean coversDate(LocalDate day) {
+        return coversDate(startDate, endDate, day);
+    }
+    
+    /**
+     * Clôture l'adhésion à la date donnée
+     */
+    public void end(LocalDate date) {
+        if (endDate == null || endDate.isAfter(date)) {
+            endDate = date;
+        }
+    }
+    
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Adherent getAdherent() { return adherent; }
+    public void setAdherent(Adherent adherent) { this.adherent = adherent; }
+    
+    public Subscription getPlan() { return plan; }
+    public void setPlan(Subscription plan) { this.plan = plan; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public int getWeeklySessionsLimit() { return weeklySessionsLimit; }
+    public void setWeeklySessionsLimit(int weeklySessionsLimit) { this.weeklySessionsLimit = weeklySessionsLimit; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
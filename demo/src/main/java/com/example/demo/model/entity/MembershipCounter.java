@@ -0,0 +1,49 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import com.example.demo.model.enums.AdherentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Compteur matérialisé du nombre d'adhérents par statut
+ */
+@Entity
+@Table(name = "membership_counters")
+public class MembershipCounter {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private AdherentStatus status;
+    
+    @Column(name = "member_count", nullable = false)
+    private long memberCount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+    
+    public MembershipCounter() {}
+    
+    public MembershipCounter(AdherentStatus status, long memberCount) {
+        this.status = status;
+        this.memberCount = memberCount;
+        this.updatedAt = LocalDateTime.now();
+        this.reconciledAt = this.updatedAt;
+    }
+    
+    // Getters et Setters
+    public AdherentStatus getStatus() { return status; }
+    public void setStatus(AdherentStatus status) { this.status = status; }
+    
+    public long getMemberCount() { return memberCount; }
+    public void setMemberCount(long memberCount) { this.memberCount = memberCount; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public LocalDateTime getReconciledAt() { return reconciledAt; }
+    public void setReconciledAt(LocalDateTime reconciledAt) { this.reconciledAt = reconciledAt; }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Séances consommées par une adhésion sur une semaine ISO : une ligne par (adhésion, semaine),
+ * de sorte que deux adhérents ne se disputent jamais la même ligne
+ */
+@Entity
+@Table(name = "membership_week_usage")
+public class MembershipWeekUsage {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(nullable = false)
+    private int used;
+    
+    public MembershipWeekUsage() {}
+    
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+    
+    public int getUsed() { return used; }
+    public void setUsed(int used) { this.used = used; }
+    
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "membership_id", nullable = false)
+        private Long membershipId;
+        
+        @Column(nullable = false)
+        private int week;
+        
+        public Key() {}
+        
+        public Key(Long membershipId, int week) {
+            this.membershipId = membershipId;
+            this.week = week;
+        }
+        
+        public Long getMembershipId() { return membershipId; }
+        public int getWeek() { return week; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return week == other.week && Objects.equals(membershipId, other.membershipId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(membershipId, week);
+        }
+    }
+}
@@ -5,18 +5,18 @@ import jakarta.validation.constraints.*;
 import com.example.demo.model.enums.SubscriptionType;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.WeekFields;
-import java.util.Locale;
 
 /**
- * Entité représentant un abonnement/subscription d'un adhérent
+ * Formule d'abonnement du catalogue, partagée par ses adhérents : l'état propre à chacun
+ * (dates, séances consommées) est porté par {@link Membership}
  */
 @Entity
 @Table(name = "subscriptions")
 public class Subscription {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_seq")
+    @SequenceGenerator(name = "subscriptions_seq", sequenceName = "subscriptions_seq", allocationSize = 50)
     private Long id;
     
     @Enumerated(EnumType.STRING)
@@ -48,17 +48,10 @@ public class Subscription {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    @Column(name = "weekly_sessions_used")
-    private Integer weeklySessionsUsed = 0;
-    
-    @Column(name = "last_session_week")
-    private Integer lastSessionWeek;
-    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        weeklySessionsUsed = 0;
         // Initialiser les dates de début et fin si non définies
         if (startDate == null) {
             startDate = LocalDate.now();
@@ -95,73 +88,6 @@ public class Subscription {
         return type.getWeeklySessions();
     }
     
-    /**
-     * Vérifie si l'adhérent peut réserver une séance supplémentaire cette semaine
-     */
-    public boolean canBookSession() {
-        if (!isActive()) {
-            return false;
-        }
-        
-        // Reset le compteur si on est dans une nouvelle semaine
-        resetWeeklyCounterIfNeeded();
-        
-        // Premium = illimité
-        if (SubscriptionType.PREMIUM == type) {
-            return true;
-        }
-        
-        // Basic = vérifier la limite
-        return weeklySessionsUsed < getWeeklySessionLimit();
-    }
-    
-    /**
-     * Incrémente le compteur de séances hebdomadaires
-     */
-    public void incrementWeeklySessionCount() {
-        resetWeeklyCounterIfNeeded();
-        this.weeklySessionsUsed++;
-    }
-    
-    /**
-     * Décrémente le compteur de séances hebdomadaires (en cas d'annulation)
-     */
-    public void decrementWeeklySessionCount() {
-        if (this.weeklySessionsUsed > 0) {
-            this.weeklySessionsUsed--;
-        }
-    }
-    
-    /**
-     * Réinitialise le compteur si on est dans une nouvelle semaine
-     */
-    private void resetWeeklyCounterIfNeeded() {
-        int currentWeek = getCurrentWeekNumber();
-        if (lastSessionWeek == null || lastSessionWeek != currentWeek) {
-            this.weeklySessionsUsed = 0;
-            this.lastSessionWeek = currentWeek;
-        }
-    }
-    
-    /**
-     * Obtient le numéro de la semaine actuelle dans l'année
-     */
-    private int getCurrentWeekNumber() {
-        WeekFields weekFields = WeekFields.of(Locale.getDefault());
-        return LocalDate.now().get(weekFields.weekOfWeekBasedYear());
-    }
-    
-    /**
-     * Obtient le nombre de séances restantes pour cette semaine
-     */
-    public int getRemainingWeeklySessions() {
-        if (SubscriptionType.PREMIUM == type) {
-            return Integer.MAX_VALUE;
-        }
-        resetWeeklyCounterIfNeeded();
-        return Math.max(0, getWeeklySessionLimit() - weeklySessionsUsed);
-    }
-    
     // Getters et Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -189,10 +115,4 @@ public class Subscription {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
-    
-    public Integer getWeeklySessionsUsed() { return weeklySessionsUsed; }
-    public void setWeeklySessionsUsed(Integer weeklySessionsUsed) { this.weeklySessionsUsed = weeklySessionsUsed; }
-    
-    public Integer getLastSessionWeek() { return lastSessionWeek; }
-    public void setLastSessionWeek(Integer lastSessionWeek) { this.lastSessionWeek = lastSessionWeek; }
 }
@@ -0,0 +1,100 @@
+package com.example.demo.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+/**
+ * Séance collective planifiée, avec sa capacité et le nombre de places réservées
+ */
+@Entity
+@Table(name = "training_sessions", indexes = {
+    @Index(name = "idx_session_starts_at", columnList = "starts_at")
+})
+public class TrainingSession {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_sessions_seq")
+    @SequenceGenerator(name = "training_sessions_seq", sequenceName = "training_sessions_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    @NotBlank(message = "Le titre est obligatoire")
+    @Size(max = 100, message = "Le titre ne doit pas dépasser 100 caractères")
+    private String title;
+    
+    @Column
+    private String coach;
+    
+    @Column(name = "starts_at", nullable = false)
+    @NotNull(message = "La date de début est obligatoire")
+    private LocalDateTime startsAt;
+    
+    @Column(name = "duration_minutes")
+    @Min(value = 1, message = "La durée doit être >= 1 minute")
+    private Integer durationMinutes;
+    
+    @Column(nullable = false)
+    @Positive(message = "La capacité doit être positive")
+    private int capacity;
+    
+    /**
+     * Places réservées : modifiées uniquement par UPDATE conditionnel (voir TrainingSessionRepository)
+     */
+    @Column(name = "booked_count", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int bookedCount;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (durationMinutes == null) {
+            durationMinutes = 60;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public int getRemainingPlaces() {
+        return Math.max(0, capacity - bookedCount);
+    }
+    
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getCoach() { return coach; }
+    public void setCoach(String coach) { this.coach = coach; }
+    
+    public LocalDateTime getStartsAt() { return startsAt; }
+    public void setStartsAt(LocalDateTime startsAt) { this.startsAt = startsAt; }
+    
+    public Integer getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(Integer durationMinutes) { this.durationMinutes = durationMinutes; }
+    
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+    
+    public int getBookedCount() { return bookedCount; }
+    public void setBookedCount(int bookedCount) { this.bookedCount = bookedCount; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.model.enums;
+
+/**
+ * États d'une réservation de séance
+ */
+public enum BookingStatus {
+    CONFIRMED,
+    CANCELLED
+}
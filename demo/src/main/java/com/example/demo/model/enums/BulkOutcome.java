@@ -0,0 +1,26 @@
+package com.example.demo.model.enums;
+
+/**
+ * Résultat d'une opération groupée pour un identifiant
+ */
+public enum BulkOutcome {
+    /**
+     * Modifié par l'opération
+     */
+    UPDATED,
+    
+    /**
+     * Déjà dans l'état demandé
+     */
+    UNCHANGED,
+    
+    /**
+     * Transition non autorisée depuis l'état courant
+     */
+    NOT_APPLICABLE,
+    
+    /**
+     * Identifiant inconnu
+     */
+    NOT_FOUND
+}
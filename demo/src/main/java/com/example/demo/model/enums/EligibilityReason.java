@@ -0,0 +1,15 @@
+package com.example.demo.model.enums;
+
+/**
+ * Motif du verdict d'éligibilité à une séance
+ */
+public enum EligibilityReason {
+    ELIGIBLE,
+    NOT_FOUND,
+    SUSPENDED,
+    NOT_ACTIVE,
+    NO_MEDICAL_CERTIFICATE,
+    NO_SUBSCRIPTION,
+    SUBSCRIPTION_NOT_ACTIVE,
+    MEDICAL_CERTIFICATE_EXPIRED
+}
@@ -0,0 +1,141 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.Adherent;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Écritures en masse des adhérents via JDBC batch (import), sans passer par le contexte de persistance
+ */
+@Repository
+public class AdherentBulkRepository {
+    
+    // Doit correspondre à allocationSize des @SequenceGenerator (optimiseur pooled)
+    private static final int ALLOCATION_SIZE = 50;
+    
+    private static final String INSERT_ADHERENT =
+        "INSERT INTO adherents (id, first_name, last_name, email, phone_number, date_of_birth, address, " +
+        "city, postal_code, country, status, created_at, updated_at, version) " +
+        "VALUES (:id, :firstName, :lastName, :email, :phoneNumber, :dateOfBirth, :address, " +
+        ":city, :postalCode, :country, :status, :now, :now, 0)";
+    
+    private static final String INSERT_USER =
+        "INSERT INTO users (id, username, password, role, adherent_id, token_version) " +
+        "VALUES (:id, :username, :password, 'USER', :adherentId, 0)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Set<String> checkedSequences = ConcurrentHashMap.newKeySet();
+    
+    public AdherentBulkRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Emails déjà pris, par un adhérent ou un compte utilisateur (une requête par lot)
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("emails", emails);
+        List<String> existing = jdbcTemplate.queryForList(
+            "SELECT email FROM adherents WHERE email IN (:emails) " +
+            "UNION SELECT username FROM users WHERE username IN (:emails)",
+            params, String.class);
+        return new HashSet<>(existing);
+    }
+    
+    /**
+     * Réserve des identifiants selon la même règle que Hibernate (pooled) : chaque nextval = v
+     * donne le bloc ]v - 50, v], limité aux valeurs >= 1. Sur une séquence neuve, le premier
+     * nextval (1) ne donne donc que l'identifiant 1 et de nouveaux blocs sont tirés.
+     */
+    public long[] allocateIds(String sequence, int count) {
+        checkIncrement(sequence);
+        long[] ids = new long[count];
+        int i = 0;
+        while (i < count) {
+            int blocks = (count - i + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+            List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, :blocks)",
+                new MapSqlParameterSource("blocks", blocks), Long.class);
+            for (Long high : highs) {
+                for (long id = Math.max(1, high - ALLOCATION_SIZE + 1); id <= high && i < count; id++) {
+                    ids[i++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+    
+    /**
+     * Les blocs ne sont disjoints de ceux d'Hibernate que si l'incrément de la séquence vaut allocationSize
+     */
+    private void checkIncrement(String sequence) {
+        if (checkedSequences.contains(sequence)) {
+            return;
+        }
+        Long increment = jdbcTemplate.queryForObject(
+            "SELECT increment_by FROM pg_sequences WHERE sequencename = :sequence",
+            new MapSqlParameterSource("sequence", sequence), Long.class);
+        if (increment == null || increment != ALLOCATION_SIZE) {
+            throw new IllegalStateException("La séquence " + sequence + " doit avoir un incrément de "
+                + ALLOCATION_SIZE + " (actuel: " + increment + ")");
+        }
+        checkedSequences.add(sequence);
+    }
+    
+    /**
+     * Insère les adhérents en un batch JDBC ; les identifiants attribués sont reportés sur les objets
+     */
+    public int[] insertAdherents(List<Adherent> adherents, LocalDateTime now) {
+        long[] ids = allocateIds("adherents_seq", adherents.size());
+        SqlParameterSource[] batch = new SqlParameterSource[adherents.size()];
+        Timestamp timestamp = Timestamp.valueOf(now);
+        for (int i = 0; i < adherents.size(); i++) {
+            Adherent a = adherents.get(i);
+            a.setId(ids[i]);
+            batch[i] = new MapSqlParameterSource()
+                .addValue("id", ids[i])
+                .addValue("firstName", a.getFirstName())
+                .addValue("lastName", a.getLastName())
+                .addValue("email", a.getEmail())
+                .addValue("phoneNumber", a.getPhoneNumber())
+                .addValue("dateOfBirth", Date.valueOf(a.getDateOfBirth()))
+                .addValue("address", a.getAddress())
+                .addValue("city", a.getCity())
+                .addValue("postalCode", a.getPostalCode())
+                .addValue("country", a.getCountry())
+                .addValue("status", a.getStatus().name())
+                .addValue("now", timestamp);
+        }
+        return jdbcTemplate.batchUpdate(INSERT_ADHERENT, batch);
+    }
+    
+    /**
+     * Crée en un batch JDBC le compte utilisateur de chaque adhérent inséré (identifiant = email)
+     */
+    public int[] insertUsers(List<Adherent> adherents, String passwordHash) {
+        long[] ids = allocateIds("users_seq", adherents.size());
+        SqlParameterSource[] batch = new SqlParameterSource[adherents.size()];
+        for (int i = 0; i < adherents.size(); i++) {
+            Adherent a = adherents.get(i);
+            batch[i] = new MapSqlParameterSource()
+                .addValue("id", ids[i])
+                .addValue("username", a.getEmail())
+                .addValue("password", passwordHash)
+                .addValue("adherentId", a.getId());
+        }
+        return jdbcTemplate.batchUpdate(INSERT_USER, batch);
+    }
+}
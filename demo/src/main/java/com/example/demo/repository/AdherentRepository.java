@@ -1,16 +1,33 @@
 package com.example.demo.repository;
 
+import com.example.demo.model.dto.AdherentStatusRow;
+import com.example.demo.model.dto.AdherentSummary;
+import com.example.demo.model.dto.BookingCandidate;
+import com.example.demo.model.dto.CertificateExpiry;
+import com.example.demo.model.dto.EligibilityRow;
+import com.example.demo.model.dto.StoredDocument;
 import com.example.demo.model.entity.Adherent;
 import com.example.demo.model.entity.Subscription;
 import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.SubscriptionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour gérer les adhérents
@@ -18,6 +35,30 @@ import java.util.Optional;
 @Repository
 public interface AdherentRepository extends JpaRepository<Adherent, Long> {
     
+    /**
+     * Projection des listes : seules les colonnes affichées sont lues
+     */
+    String SUMMARY_SELECT = "SELECT new com.example.demo.model.dto.AdherentSummary(" +
+        "a.id, a.firstName, a.lastName, a.email, a.status, s.type, COALESCE(m.endDate, s.endDate)) " +
+        "FROM Adherent a LEFT JOIN a.currentSubscription s LEFT JOIN a.currentMembership m ";
+    
+    /**
+     * Anti-jointure excluant les adhérents liés à un compte ADMIN
+     */
+    String NOT_ADMIN = "NOT EXISTS (SELECT 1 FROM User u WHERE u.adherent = a AND u.role = 'ADMIN')";
+    
+    /**
+     * Statut, présence du certificat et adhésion en cours : tout ce que vérifie une réservation
+     */
+    String BOOKING_CANDIDATE_SELECT = "SELECT new com.example.demo.model.dto.BookingCandidate(" +
+        "a.id, a.status, CASE WHEN a.medicalCertificateRef IS NOT NULL THEN true ELSE false END, " +
+        "a.medicalCertificateExpiresOn, m.id, m.startDate, m.endDate, m.weeklySessionsLimit) ";
+    
+    String ELIGIBILITY_SELECT = "SELECT new com.example.demo.model.dto.EligibilityRow(" +
+        "a.id, a.status, CASE WHEN a.medicalCertificateRef IS NOT NULL THEN true ELSE false END, " +
+        "a.medicalCertificateExpiresOn, m.id, m.startDate, m.endDate, s.id, s.startDate, s.endDate) " +
+        "FROM Adherent a LEFT JOIN a.currentMembership m LEFT JOIN a.currentSubscription s ";
+    
     /**
      * Trouve un adhérent par son email
      */
@@ -45,6 +86,27 @@ public interface AdherentRepository extends JpaRepository<Adherent, Long> {
      */
     long countByStatus(AdherentStatus status);
     
+    /**
+     * Nombre d'adhérents par statut en une seule requête : chaque ligne contient [statut, nombre]
+     */
+    @Query("SELECT a.status, COUNT(a) FROM Adherent a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
+    
+    /**
+     * Compte les adhérents créés dans l'intervalle [start, end[ (index sur created_at)
+     */
+    @Query("SELECT COUNT(a) FROM Adherent a WHERE a.createdAt >= :start AND a.createdAt < :end")
+    long countCreatedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    /**
+     * Inscriptions par mois et par statut sur l'intervalle, en une seule requête :
+     * chaque ligne contient [mois (1-12), statut, nombre]
+     */
+    @Query("SELECT EXTRACT(MONTH FROM a.createdAt), a.status, COUNT(a) FROM Adherent a " +
+           "WHERE a.createdAt >= :start AND a.createdAt < :end " +
+           "GROUP BY EXTRACT(MONTH FROM a.createdAt), a.status")
+    List<Object[]> countCreatedPerMonthAndStatus(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
     /**
      * Vérifie si un email existe déjà
      */
@@ -53,8 +115,7 @@ public interface AdherentRepository extends JpaRepository<Adherent, Long> {
     /**
      * Récupère tous les adhérents sauf ceux liés à un utilisateur ADMIN
      */
-    @Query("SELECT a FROM Adherent a WHERE a.id NOT IN " +
-           "(SELECT u.adherent.id FROM User u WHERE u.role = 'ADMIN' AND u.adherent IS NOT NULL)")
+    @Query("SELECT a FROM Adherent a WHERE " + NOT_ADMIN)
     Page<Adherent> findAllExcludingAdmins(Pageable pageable);
     
     /**
@@ -67,4 +128,166 @@ public interface AdherentRepository extends JpaRepository<Adherent, Long> {
      * Trouve les adhérents avec pagination par statut
      */
     Page<Adherent> findByStatus(AdherentStatus status, Pageable pageable);
+    
+    /**
+     * Métadonnées du certificat médical, sans charger l'adhérent
+     */
+    @Query("SELECT new com.example.demo.model.dto.StoredDocument(a.medicalCertificateRef, a.medicalCertificateSize, a.medicalCertificateContentType) " +
+           "FROM Adherent a WHERE a.id = :id AND a.medicalCertificateRef IS NOT NULL")
+    Optional<StoredDocument> findMedicalCertificate(@Param("id") Long id);
+    
+    /**
+     * Métadonnées de la photo, sans charger l'adhérent
+     */
+    @Query("SELECT new com.example.demo.model.dto.StoredDocument(a.photoRef, a.photoSize, a.photoContentType) " +
+           "FROM Adherent a WHERE a.id = :id AND a.photoRef IS NOT NULL")
+    Optional<StoredDocument> findPhoto(@Param("id") Long id);
+    
+    /**
+     * Remplace la référence du certificat médical sans charger ni réécrire le reste de la ligne
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Adherent a SET a.medicalCertificateRef = :ref, a.medicalCertificateSize = :size, " +
+           "a.medicalCertificateContentType = :contentType, a.medicalCertificateUploadedAt = :now, " +
+           "a.medicalCertificateIssuedOn = :issuedOn, a.medicalCertificateExpiresOn = :expiresOn, " +
+           "a.updatedAt = :now, a.version = a.version + 1 WHERE a.id = :id")
+    int updateMedicalCertificate(@Param("id") Long id,
+                                 @Param("ref") String ref,
+                                 @Param("size") Long size,
+                                 @Param("contentType") String contentType,
+                                 @Param("issuedOn") LocalDate issuedOn,
+                                 @Param("expiresOn") LocalDate expiresOn,
+                                 @Param("now") LocalDateTime now);
+    
+    /**
+     * Validité du certificat lue sur les seules métadonnées (présence et date d'expiration)
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Adherent a WHERE a.id = :id AND a.medicalCertificateRef IS NOT NULL " +
+           "AND (a.medicalCertificateExpiresOn IS NULL OR a.medicalCertificateExpiresOn >= :day)")
+    boolean hasValidMedicalCertificate(@Param("id") Long id, @Param("day") LocalDate day);
+    
+    /**
+     * Certificats des adhérents actifs expirant dans la période (parcours de l'index sur la date d'expiration)
+     */
+    @Query("SELECT new com.example.demo.model.dto.CertificateExpiry(a.id, a.firstName, a.lastName, a.email, " +
+           "a.medicalCertificateIssuedOn, a.medicalCertificateExpiresOn) FROM Adherent a " +
+           "WHERE a.medicalCertificateExpiresOn BETWEEN :from AND :to AND a.status = 'ACTIVE' " +
+           "AND a.medicalCertificateRef IS NOT NULL ORDER BY a.medicalCertificateExpiresOn, a.id")
+    List<CertificateExpiry> findCertificatesExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // ===== STATUT GROUPÉ =====
+    
+    @Query("SELECT new com.example.demo.model.dto.AdherentStatusRow(a.id, a.status) FROM Adherent a WHERE a.id IN :ids")
+    List<AdherentStatusRow> findStatusRows(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Adhérents d'un type d'abonnement, bornés par la page (une ligne de plus que la limite
+     * suffit à détecter un dépassement)
+     */
+    @Query("SELECT new com.example.demo.model.dto.AdherentStatusRow(a.id, a.status) FROM Adherent a " +
+           "WHERE a.currentSubscription.type = :type ORDER BY a.id")
+    List<AdherentStatusRow> findStatusRowsBySubscriptionType(@Param("type") SubscriptionType type, Pageable pageable);
+    
+    /**
+     * Suspend en une instruction les adhérents actifs ou expirés du lot
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Adherent a SET a.status = 'SUSPENDED', a.suspendedReason = :reason, a.suspendedDate = :now, " +
+           "a.updatedAt = :now, a.version = a.version + 1 WHERE a.id IN :ids AND a.status IN ('ACTIVE', 'EXPIRED')")
+    int suspendAll(@Param("ids") Collection<Long> ids,
+                   @Param("reason") String reason,
+                   @Param("now") LocalDateTime now);
+    
+    /**
+     * Réactive en une instruction les adhérents du lot encore suspendus
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Adherent a SET a.status = 'ACTIVE', a.suspendedReason = NULL, a.suspendedDate = NULL, " +
+           "a.updatedAt = :now, a.version = a.version + 1 WHERE a.id IN :ids AND a.status = 'SUSPENDED'")
+    int reactivateAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Adherent a SET a.status = 'DEACTIVATED', a.updatedAt = :now, a.version = a.version + 1 " +
+           "WHERE a.id IN :ids AND a.status <> 'DEACTIVATED'")
+    int deactivateAll(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // ===== PROJECTIONS DE LISTE =====
+    
+    @Query(value = SUMMARY_SELECT + "WHERE " + NOT_ADMIN,
+           countQuery = "SELECT COUNT(a) FROM Adherent a WHERE " + NOT_ADMIN)
+    Page<AdherentSummary> findSummariesExcludingAdmins(Pageable pageable);
+    
+    /**
+     * Pagination par clé : parcourt l'index primaire à partir de l'id donné, sans OFFSET ni COUNT
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.id > :after AND " + NOT_ADMIN + " ORDER BY a.id")
+    Slice<AdherentSummary> findSummariesAfter(@Param("after") long after, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE a.status <> 'DEACTIVATED'")
+    List<AdherentSummary> findSearchableSummaries();
+    
+    /**
+     * Adhérents modifiés depuis l'instant donné, désactivés compris (relecture de l'index de recherche)
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.updatedAt > :since")
+    List<AdherentSummary> findSummariesUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query(SUMMARY_SELECT + "WHERE a.status = 'ACTIVE'")
+    List<AdherentSummary> findActiveSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE LOWER(a.firstName) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(a.lastName) LIKE LOWER(CONCAT('%', :search, '%'))")
+    List<AdherentSummary> searchSummariesByName(@Param("search") String search);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE a.status = :status",
+           countQuery = "SELECT COUNT(a) FROM Adherent a WHERE a.status = :status")
+    Page<AdherentSummary> findSummariesByStatus(@Param("status") AdherentStatus status, Pageable pageable);
+    
+    /**
+     * Parcours en flux de l'annuaire (export) : curseur JDBC lu par paquets, à consommer
+     * dans une transaction en lecture seule et à fermer après usage
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "WHERE " + NOT_ADMIN + " ORDER BY a.id")
+    Stream<AdherentSummary> streamSummaries();
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status AND " + NOT_ADMIN + " ORDER BY a.id")
+    Stream<AdherentSummary> streamSummariesByStatus(@Param("status") AdherentStatus status);
+    
+    @Query(BOOKING_CANDIDATE_SELECT + "FROM Adherent a LEFT JOIN a.currentMembership m WHERE a.id = :id")
+    Optional<BookingCandidate> findBookingCandidate(@Param("id") Long id);
+    
+    @Query(BOOKING_CANDIDATE_SELECT +
+           "FROM User u JOIN u.adherent a LEFT JOIN a.currentMembership m WHERE u.username = :username")
+    Optional<BookingCandidate> findBookingCandidateByUsername(@Param("username") String username);
+    
+    /**
+     * Données d'éligibilité d'un lot d'adhérents en une requête (aucune entité chargée)
+     */
+    @Query(ELIGIBILITY_SELECT + "WHERE a.id IN :ids")
+    List<EligibilityRow> findEligibilityRows(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Adhérents modifiés depuis l'instant donné, y compris par une autre instance (index sur updated_at)
+     */
+    @Query(ELIGIBILITY_SELECT + "WHERE a.updatedAt > :since")
+    List<EligibilityRow> findEligibilityRowsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ELIGIBILITY_SELECT + "ORDER BY a.id")
+    Stream<EligibilityRow> streamEligibilityRows();
 }
@@ -0,0 +1,50 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.dto.BookingView;
+import com.example.demo.model.entity.Booking;
+import com.example.demo.model.entity.Membership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+// Non exposé par Spring Data REST : statut et compteurs ne changent que via BookingService
+@RepositoryRestResource(exported = false)
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    
+    String VIEW_SELECT = "SELECT new com.example.demo.model.dto.BookingView(" +
+        "b.id, s.id, s.title, s.startsAt, b.adherent.id, b.status, b.createdAt) " +
+        "FROM Booking b JOIN b.session s ";
+    
+    @Query(VIEW_SELECT + "WHERE s.id = :sessionId AND b.adherent.id = :adherentId")
+    Optional<BookingView> findView(@Param("sessionId") Long sessionId, @Param("adherentId") Long adherentId);
+    
+    @Query(VIEW_SELECT + "WHERE b.adherent.id = :adherentId ORDER BY s.startsAt DESC")
+    List<BookingView> findViewsByAdherent(@Param("adherentId") Long adherentId);
+    
+    /**
+     * Réactive une réservation annulée (la ligne unique séance/adhérent est réutilisée)
+     * @return 1 si une réservation annulée a été réactivée
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = com.example.demo.model.enums.BookingStatus.CONFIRMED, " +
+           "b.membership = :membership, b.week = :week, b.cancelledAt = NULL " +
+           "WHERE b.session.id = :sessionId AND b.adherent.id = :adherentId " +
+           "AND b.status = com.example.demo.model.enums.BookingStatus.CANCELLED")
+    int reconfirm(@Param("sessionId") Long sessionId, @Param("adherentId") Long adherentId,
+                  @Param("membership") Membership membership, @Param("week") int week);
+    
+    /**
+     * Annule une réservation confirmée ; une seule annulation concurrente aboutit
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = com.example.demo.model.enums.BookingStatus.CANCELLED, b.cancelledAt = :now " +
+           "WHERE b.id = :id AND b.status = com.example.demo.model.enums.BookingStatus.CONFIRMED")
+    int cancel(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.MembershipCounter;
+import com.example.demo.model.enums.AdherentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface MembershipCounterRepository extends JpaRepository<MembershipCounter, AdherentStatus> {
+    
+    /**
+     * Incrément atomique côté base (pas de lecture-modification-écriture en Java)
+     */
+    @Modifying
+    @Query("UPDATE MembershipCounter c SET c.memberCount = c.memberCount + :delta, c.updatedAt = :now WHERE c.status = :status")
+    int addToCount(@Param("status") AdherentStatus status, @Param("delta") long delta, @Param("now") LocalDateTime now);
+    
+    /**
+     * Verrouille toutes les lignes (SELECT ... FOR UPDATE) : les incréments concurrents attendent
+     * la fin de la réconciliation, et ceux déjà validés sont vus par le décompte qui suit
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM MembershipCounter c ORDER BY c.status")
+    List<MembershipCounter> lockAll();
+    
+    /**
+     * Remplace la valeur par le décompte réel (réconciliation)
+     */
+    @Modifying
+    @Query("UPDATE MembershipCounter c SET c.memberCount = :count, c.updatedAt = :now, c.reconciledAt = :now WHERE c.status = :status")
+    int resetCount(@Param("status") AdherentStatus status, @Param("count") long count, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.Membership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface MembershipRepository extends JpaRepository<Membership, Long> {
+}
@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.MembershipWeekUsage;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface MembershipWeekUsageRepository extends JpaRepository<MembershipWeekUsage, MembershipWeekUsage.Key> {
+    
+    /**
+     * Consomme une séance de la semaine : création de la ligne au premier passage,
+     * sinon incrément uniquement si la limite n'est pas atteinte (upsert atomique PostgreSQL)
+     * @return 1 si la séance est comptée, 0 si la limite hebdomadaire est atteinte
+     */
+    @Modifying
+    @Query(value = "INSERT INTO membership_week_usage (membership_id, week, used) VALUES (:membershipId, :week, 1) " +
+                   "ON CONFLICT (membership_id, week) DO UPDATE SET used = membership_week_usage.used + 1 " +
+                   "WHERE membership_week_usage.used < :weeklyLimit",
+           nativeQuery = true)
+    int consume(@Param("membershipId") Long membershipId, @Param("week") int week, @Param("weeklyLimit") int weeklyLimit);
+    
+    /**
+     * Verrouille la ligne de la semaine avant une annulation, pour prendre les verrous dans le même
+     * ordre qu'une réservation (semaine, réservation, séance) et exclure tout interblocage
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM MembershipWeekUsage u WHERE u.id.membershipId = :membershipId AND u.id.week = :week")
+    Optional<MembershipWeekUsage> lockWeek(@Param("membershipId") Long membershipId, @Param("week") int week);
+    
+    @Modifying
+    @Query("UPDATE MembershipWeekUsage u SET u.used = u.used - 1 " +
+           "WHERE u.id.membershipId = :membershipId AND u.id.week = :week AND u.used > 0")
+    int release(@Param("membershipId") Long membershipId, @Param("week") int week);
+}
@@ -1,13 +1,45 @@
 package com.example.demo.repository;
 
+import com.example.demo.model.dto.CatalogVersion;
+import com.example.demo.model.dto.SubscriptionRevenue;
 import com.example.demo.model.entity.Subscription;
 import com.example.demo.model.enums.SubscriptionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
     Optional<Subscription> findByType(SubscriptionType type);
     boolean existsByType(SubscriptionType type);
+    
+    /**
+     * Empreinte du catalogue, comparée par chaque instance à celle de son cache
+     */
+    @Query("SELECT new com.example.demo.model.dto.CatalogVersion(COUNT(s), MAX(s.id), MAX(s.updatedAt)) FROM Subscription s")
+    CatalogVersion findCatalogVersion();
+    
+    String REVENUE_SELECT = "SELECT new com.example.demo.model.dto.SubscriptionRevenue(s.type, s.price, COUNT(a.id), s.price * COUNT(a.id)) " +
+            "FROM Subscription s LEFT JOIN Adherent a ON a.currentSubscription = s LEFT JOIN a.currentMembership m ";
+    String REVENUE_GROUP = "GROUP BY s.type, s.price ORDER BY s.type, s.price";
+    
+    /**
+     * Abonnés et chiffre d'affaires par (type, prix) en une seule requête
+     */
+    @Query(REVENUE_SELECT + REVENUE_GROUP)
+    List<SubscriptionRevenue> findRevenueByTypeAndPrice();
+    
+    /**
+     * Idem, limité aux adhésions dont la période [startDate, endDate] chevauche [from, to]
+     * (dates de la formule pour les adhérents rattachés avant l'introduction des adhésions)
+     */
+    @Query(REVENUE_SELECT +
+           "WHERE (COALESCE(m.startDate, s.startDate) IS NULL OR COALESCE(m.startDate, s.startDate) <= :to) " +
+           "AND (COALESCE(m.endDate, s.endDate) IS NULL OR COALESCE(m.endDate, s.endDate) >= :from) " +
+           REVENUE_GROUP)
+    List<SubscriptionRevenue> findRevenueByTypeAndPrice(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.entity.TrainingSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface TrainingSessionRepository extends JpaRepository<TrainingSession, Long> {
+    
+    List<TrainingSession> findByStartsAtBetweenOrderByStartsAt(LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT s.startsAt FROM TrainingSession s WHERE s.id = :id")
+    Optional<LocalDateTime> findStartsAtById(@Param("id") Long id);
+    
+    /**
+     * Prend une place si la séance n'est ni complète ni commencée (contrôle et écriture en une instruction)
+     * @return 1 si la place est prise, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE TrainingSession s SET s.bookedCount = s.bookedCount + 1 " +
+           "WHERE s.id = :id AND s.bookedCount < s.capacity AND s.startsAt > :now")
+    int reservePlace(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE TrainingSession s SET s.bookedCount = s.bookedCount - 1 WHERE s.id = :id AND s.bookedCount > 0")
+    int releasePlace(@Param("id") Long id);
+}
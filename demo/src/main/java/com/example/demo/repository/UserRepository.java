@@ -1,12 +1,51 @@
 package com.example.demo.repository;
 
+import com.example.demo.model.dto.UserAccountRow;
+import com.example.demo.model.entity.Adherent;
 import com.example.demo.model.entity.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    /**
+     * Version courante des tokens de l'utilisateur (une seule colonne, aucune jointure)
+     */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+
+    /**
+     * Adhérent lié à l'utilisateur, sans charger l'utilisateur lui-même
+     */
+    @Query("SELECT u.adherent FROM User u WHERE u.username = :username")
+    Optional<Adherent> findAdherentByUsername(@Param("username") String username);
+
+    @Query("SELECT u.adherent.id FROM User u WHERE u.username = :username AND u.adherent IS NOT NULL")
+    Optional<Long> findAdherentIdByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.example.demo.model.dto.UserAccountRow(u.id, u.username, u.role, u.enabled) " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserAccountRow> findAccountRows(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Désactive les comptes du lot et révoque leurs tokens (incrément de version) en une instruction
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.enabled = false, u.tokenVersion = u.tokenVersion + 1 " +
+           "WHERE u.id IN :ids AND u.enabled = true")
+    int disableAll(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.role = :role, u.tokenVersion = u.tokenVersion + 1 " +
+           "WHERE u.id IN :ids AND u.role <> :role")
+    int updateRoleAll(@Param("ids") Collection<Long> ids, @Param("role") String role);
 }
@@ -0,0 +1,30 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import java.util.Collection;
+
+/**
+ * Utilisateur authentifié portant aussi son rôle et sa version de token,
+ * pour émettre le JWT sans relire la base après l'authentification
+ */
+public class AuthenticatedUser extends User {
+    
+    private final String role;
+    private final int tokenVersion;
+    
+    public AuthenticatedUser(String username, String password, String role, int tokenVersion, boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
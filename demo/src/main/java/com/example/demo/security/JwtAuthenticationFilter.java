@@ -1,15 +1,19 @@
 package com.example.demo.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,10 +26,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final boolean stateless;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   TokenVersionCache tokenVersionCache,
+                                   @Value("${security.jwt.stateless:true}") boolean stateless) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.stateless = stateless;
     }
 
     @Override
@@ -46,33 +56,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        VerifiedClaims claims;
+        try {
+            // Une seule vérification de signature par token (résultat mis en cache)
+            claims = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String username = claims.username();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(token, userDetails)) {
-                // Extract role from token and create authorities (fallback to userDetails authorities)
-                String role = jwtService.extractRole(token);
-                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                if (role != null && !role.isEmpty()) {
-                    String normalizedRole = role.startsWith("ROLE_") ? role : "ROLE_" + role;
-                    authorities.add(new SimpleGrantedAuthority(normalizedRole));
-                } else {
-                    userDetails.getAuthorities().forEach(a -> {
-                        authorities.add(new SimpleGrantedAuthority(a.getAuthority()));
-                    });
+            String role = claims.role();
+            UserDetails userDetails;
+            List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+            if (stateless && role != null && !role.isEmpty()) {
+                // Mode sans état : autorités issues du token, seule la version est contrôlée (cache)
+                if (!tokenVersionCache.isCurrent(username, claims.version())) {
+                    filterChain.doFilter(request, response);
+                    return;
                 }
-
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    authorities
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                authorities.add(new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role));
+                userDetails = new User(username, "", authorities);
+            } else {
+                // Utilisateur relu en base : la version du token est comparée à la sienne,
+                // et les autorités sont celles de la base (un rôle modifié s'applique aussitôt)
+                try {
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                } catch (UsernameNotFoundException e) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                if (!userDetails.isEnabled() || !isCurrentVersion(userDetails, claims)) {
+                    filterChain.doFilter(request, response);
+                    return;
+                }
+                userDetails.getAuthorities().forEach(a -> authorities.add(new SimpleGrantedAuthority(a.getAuthority())));
             }
+
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                authorities
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isCurrentVersion(UserDetails userDetails, VerifiedClaims claims) {
+        return userDetails instanceof AuthenticatedUser user && user.getTokenVersion() == claims.version();
+    }
 }
@@ -1,13 +1,23 @@
 package com.example.demo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import com.example.demo.model.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -15,69 +25,146 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
-    private final String secret;
+    private static final String VERSION_CLAIM = "ver";
+
     private final long expirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int cacheSize;
+    private final Map<String, VerifiedClaims> verifiedTokens;
+    private final Clock clock;
 
+    @Autowired
     public JwtService(@Value("${security.jwt.secret}") String secret,
-                      @Value("${security.jwt.expiration-ms:3600000}") long expirationMs) {
-        this.secret = secret;
+                      @Value("${security.jwt.expiration-ms:3600000}") long expirationMs,
+                      @Value("${security.jwt.cache-size:10000}") int cacheSize) {
+        this(secret, expirationMs, cacheSize, Clock.systemUTC());
+    }
+
+    // Horloge partagée par l'émission, le parser et le cache (remplaçable en test)
+    JwtService(String secret, long expirationMs, int cacheSize, Clock clock) {
         this.expirationMs = expirationMs;
+        this.clock = clock;
+        // Clé et parser construits une seule fois (tous deux immuables et thread-safe)
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).clock(() -> Date.from(clock.instant())).build();
+        this.cacheSize = cacheSize;
+        // LRU borné : ordre d'accès, l'entrée la moins récemment utilisée est évincée
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedClaims> eldest) {
+                return size() > JwtService.this.cacheSize;
+            }
+        };
     }
 
     public String generateToken(String username) {
-        Date now = new Date();
+        Date now = Date.from(clock.instant());
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
             .subject(username)
             .issuedAt(now)
             .expiration(expiry)
-            .signWith(signingKey())
+            .signWith(signingKey)
             .compact();
     }
 
+    public String generateToken(User user) {
+        return generateToken(user.getUsername(), user.getRole(), user.getTokenVersion());
+    }
+
     public String generateToken(String username, String role) {
-        Date now = new Date();
+        return generateToken(username, role, 0);
+    }
+
+    public String generateToken(String username, String role, int version) {
+        Date now = Date.from(clock.instant());
         Date expiry = new Date(now.getTime() + expirationMs);
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
+        claims.put(VERSION_CLAIM, version);
 
         return Jwts.builder()
             .claims(claims)
             .subject(username)
             .issuedAt(now)
             .expiration(expiry)
-            .signWith(signingKey())
+            .signWith(signingKey)
             .compact();
     }
 
+    /**
+     * Vérifie la signature et l'expiration du token une seule fois, puis sert les claims depuis le cache
+     * jusqu'à expiration du token
+     * @throws JwtException si le token est invalide ou expiré
+     */
+    public VerifiedClaims verify(String token) {
+        if (cacheSize <= 0) {
+            return parse(token);
+        }
+        String key = digest(token);
+        Instant now = clock.instant();
+        synchronized (verifiedTokens) {
+            VerifiedClaims cached = verifiedTokens.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    return cached;
+                }
+                verifiedTokens.remove(key);
+            }
+        }
+        VerifiedClaims claims = parse(token);
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return verify(token).username();
     }
 
     public String extractRole(String token) {
-        return (String) extractAllClaims(token).get("role");
+        return verify(token).role();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        try {
+            return verify(token).username().equals(userDetails.getUsername());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
+    // Présence du token dans le cache, pour les tests
+    boolean isCached(String token) {
+        synchronized (verifiedTokens) {
+            return verifiedTokens.containsKey(digest(token));
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(signingKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+    private VerifiedClaims parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        // Les tokens émis avant l'ajout du claim "ver" correspondent à la version 0
+        Integer version = claims.get(VERSION_CLAIM, Integer.class);
+        return new VerifiedClaims(
+            claims.getSubject(),
+            claims.get("role", String.class),
+            version != null ? version : 0,
+            claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
     }
 
-    private SecretKey signingKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Clé de cache : empreinte SHA-256 du token (le token lui-même n'est pas conservé)
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 }
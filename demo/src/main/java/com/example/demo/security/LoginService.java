@@ -0,0 +1,147 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Connexion : limitation de débit par IP et par identifiant, puis vérification BCrypt
+ * sur un pool borné (hors des threads Tomcat) avec rejet immédiat quand la file est pleine
+ */
+@Service
+public class LoginService {
+    
+    private static final Logger log = Logger.getLogger(LoginService.class.getName());
+    
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final ThreadPoolExecutor executor;
+    private final StripedTokenBuckets ipBuckets;
+    private final StripedTokenBuckets usernameBuckets;
+    private final Duration timeout;
+    
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter throttledIp;
+    private final Counter throttledUsername;
+    private final Counter overloaded;
+    
+    public LoginService(AuthenticationManager authenticationManager,
+                        JwtService jwtService,
+                        MeterRegistry meterRegistry,
+                        @Value("${security.login.threads:0}") int threads,
+                        @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                        @Value("${security.login.timeout:10s}") Duration timeout,
+                        @Value("${security.login.ip.capacity:20}") int ipCapacity,
+                        @Value("${security.login.ip.refill-per-minute:20}") int ipRefill,
+                        @Value("${security.login.username.capacity:5}") int usernameCapacity,
+                        @Value("${security.login.username.refill-per-minute:5}") int usernameRefill) {
+        this.authenticationManager = authenticationManager;
+        this.jwtService = jwtService;
+        this.timeout = timeout;
+        
+        // Par défaut un thread par cœur : BCrypt est purement CPU
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread t = new Thread(r, "login-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        
+        this.ipBuckets = new StripedTokenBuckets(ipCapacity, ipRefill);
+        this.usernameBuckets = new StripedTokenBuckets(usernameCapacity, usernameRefill);
+        
+        this.hashTimer = Timer.builder("auth.login.hash.time")
+                .description("Durée de la vérification du mot de passe")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.login.queue.wait")
+                .description("Attente dans la file du pool de connexion")
+                .register(meterRegistry);
+        this.throttledIp = meterRegistry.counter("auth.login.rejected", "reason", "ip");
+        this.throttledUsername = meterRegistry.counter("auth.login.rejected", "reason", "username");
+        this.overloaded = meterRegistry.counter("auth.login.rejected", "reason", "overloaded");
+        Gauge.builder("auth.login.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+    
+    /**
+     * Authentifie et émet un JWT. Le futur échoue avec une AuthenticationException
+     * (identifiants invalides) ou une ResponseStatusException 429/503 (limitation, surcharge).
+     */
+    public CompletableFuture<String> login(String username, String password, String clientIp) {
+        if (!ipBuckets.tryAcquire(clientIp)) {
+            throttledIp.increment();
+            return CompletableFuture.failedFuture(tooManyRequests(ipBuckets));
+        }
+        if (username == null || !usernameBuckets.tryAcquire(username)) {
+            throttledUsername.increment();
+            return CompletableFuture.failedFuture(tooManyRequests(usernameBuckets));
+        }
+        
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                Authentication authentication = hashTimer.record(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(username, password)));
+                return issueToken(authentication);
+            }, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            overloaded.increment();
+            return CompletableFuture.failedFuture(
+                    rejected(HttpStatus.SERVICE_UNAVAILABLE, "Trop de connexions simultanées", 1));
+        }
+    }
+    
+    // Le principal porte déjà rôle et version : pas de second findByUsername
+    private String issueToken(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return jwtService.generateToken(user.getUsername(), user.getRole(), user.getTokenVersion());
+        }
+        throw new IllegalStateException("Principal inattendu: " + authentication.getPrincipal().getClass());
+    }
+    
+    private ResponseStatusException tooManyRequests(StripedTokenBuckets buckets) {
+        return rejected(HttpStatus.TOO_MANY_REQUESTS, "Trop de tentatives de connexion",
+                buckets.secondsUntilNextToken());
+    }
+    
+    // Rejet portant l'en-tête Retry-After
+    private static ResponseStatusException rejected(HttpStatus status, String reason, long retryAfterSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return new ResponseStatusException(status, reason) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        log.info("Pool de connexion arrêté");
+    }
+}
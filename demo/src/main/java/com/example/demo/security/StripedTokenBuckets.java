@@ -0,0 +1,138 @@
+package com.example.demo.security;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Seaux à jetons par clé (IP, identifiant...), répartis sur des segments verrouillés séparément
+ * pour limiter la contention. Une clé absente équivaut à un seau plein : les seaux pleins
+ * sont purgés lorsque un segment grossit trop. Un seau vide n'est jamais évincé, sinon
+ * saturer un segment suffirait à lever la limitation d'une clé.
+ */
+public class StripedTokenBuckets {
+    
+    private static final int STRIPES = 64;
+    private static final int MAX_KEYS_PER_STRIPE = 1024;
+    
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int refillPerMinute;
+    private final LongSupplier clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+    }
+    
+    private static final class Stripe {
+        final Map<String, Bucket> buckets = new HashMap<>();
+    }
+    
+    /**
+     * @param capacity nombre de tentatives autorisées en rafale
+     * @param refillPerMinute jetons rendus par minute
+     */
+    public StripedTokenBuckets(int capacity, int refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+    
+    StripedTokenBuckets(int capacity, int refillPerMinute, LongSupplier clock) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Capacité et débit doivent être positifs");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+        this.refillPerMinute = refillPerMinute;
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+    
+    /**
+     * Consomme un jeton pour la clé
+     * @return false si le seau est vide (requête à rejeter)
+     */
+    public boolean tryAcquire(String key) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= MAX_KEYS_PER_STRIPE && !makeRoom(stripe, now)) {
+                    // Segment saturé de clés limitées : la nouvelle clé attend qu'un seau se remplisse
+                    return false;
+                }
+                bucket = new Bucket();
+                bucket.tokens = capacity;
+                bucket.refilledAt = now;
+                stripe.buckets.put(key, bucket);
+            } else {
+                refill(bucket, now);
+            }
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        }
+    }
+    
+    /**
+     * Secondes avant qu'un jeton soit de nouveau disponible (en-tête Retry-After)
+     */
+    public long secondsUntilNextToken() {
+        return Math.max(1, (60 + refillPerMinute - 1) / refillPerMinute);
+    }
+    
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+    
+    private void refill(Bucket bucket, long now) {
+        long elapsed = now - bucket.refilledAt;
+        if (elapsed > 0) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + elapsed * tokensPerNano);
+            bucket.refilledAt = now;
+        }
+    }
+    
+    /**
+     * Purge les seaux redevenus pleins ; si le segment reste saturé, évince le seau le plus rempli
+     * à condition qu'il lui reste au moins un jeton
+     * @return false si le segment ne contient que des seaux vides
+     */
+    private boolean makeRoom(Stripe stripe, long now) {
+        Iterator<Map.Entry<String, Bucket>> it = stripe.buckets.entrySet().iterator();
+        String fullest = null;
+        double fullestTokens = 1;
+        while (it.hasNext()) {
+            Map.Entry<String, Bucket> entry = it.next();
+            Bucket bucket = entry.getValue();
+            refill(bucket, now);
+            if (bucket.tokens >= capacity) {
+                it.remove();
+            } else if (bucket.tokens >= fullestTokens) {
+                fullest = entry.getKey();
+                fullestTokens = bucket.tokens;
+            }
+        }
+        if (stripe.buckets.size() < MAX_KEYS_PER_STRIPE) {
+            return true;
+        }
+        if (fullest == null) {
+            return false;
+        }
+        stripe.buckets.remove(fullest);
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.security;
+
+import com.example.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des versions de token par utilisateur : permet de révoquer les JWT (changement de mot de passe
+ * ou de rôle) sans recharger l'utilisateur à chaque requête
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<String, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    private record CachedVersion(int version, long loadedAt) {}
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${security.jwt.version-cache-ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Indique si la version portée par le token est toujours la version courante de l'utilisateur.
+     * Le TTL borne le délai de révocation lorsque plusieurs instances tournent en parallèle.
+     */
+    public boolean isCurrent(String username, int tokenVersion) {
+        long now = System.nanoTime();
+        CachedVersion cached = versions.get(username);
+        if (cached == null || now - cached.loadedAt() > ttlNanos) {
+            Integer version = userRepository.findTokenVersionByUsername(username).orElse(null);
+            if (version == null) {
+                versions.remove(username);
+                return false;
+            }
+            if (versions.size() >= MAX_ENTRIES) {
+                versions.clear();
+            }
+            cached = new CachedVersion(version, now);
+            versions.put(username, cached);
+        }
+        return cached.version() == tokenVersion;
+    }
+
+    /**
+     * À appeler après l'enregistrement d'une nouvelle version (mot de passe, rôle)
+     */
+    public void invalidate(String username) {
+        versions.remove(username);
+    }
+}
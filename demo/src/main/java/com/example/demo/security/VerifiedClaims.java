@@ -0,0 +1,17 @@
+package com.example.demo.security;
+
+import java.time.Instant;
+
+/**
+ * Claims d'un JWT dont la signature et l'expiration ont déjà été vérifiées
+ */
+public record VerifiedClaims(String username,
+                             String role,
+                             int version,
+                             Instant issuedAt,
+                             Instant expiresAt) {
+    
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
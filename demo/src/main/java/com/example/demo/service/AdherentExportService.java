@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.AdherentSummary;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.repository.AdherentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Export de l'annuaire des adhérents en CSV ou NDJSON, écrit au fil de la lecture
+ * (mémoire constante, aucune colonne de document lue)
+ */
+@Service
+public class AdherentExportService {
+    
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+    private static final String CSV_HEADER = "id,firstName,lastName,email,status,subscriptionType,subscriptionEndDate";
+    
+    private final AdherentRepository adherentRepository;
+    private final ObjectMapper objectMapper;
+    
+    public AdherentExportService(AdherentRepository adherentRepository, ObjectMapper objectMapper) {
+        this.adherentRepository = adherentRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Vérifie le format demandé avant de commencer la réponse
+     */
+    public static String resolveFormat(String format) {
+        String resolved = format == null ? FORMAT_CSV : format.toLowerCase(Locale.ROOT);
+        if (!FORMAT_CSV.equals(resolved) && !FORMAT_NDJSON.equals(resolved)) {
+            throw new IllegalArgumentException("Format d'export inconnu: " + format);
+        }
+        return resolved;
+    }
+    
+    public static AdherentStatus resolveStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return AdherentStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Statut invalide: " + status);
+        }
+    }
+    
+    /**
+     * Écrit l'export dans le flux ; la transaction en lecture seule maintient le curseur ouvert
+     */
+    @Transactional(readOnly = true)
+    public void export(String format, AdherentStatus status, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        boolean csv = FORMAT_CSV.equals(format);
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<AdherentSummary> rows = status == null
+                ? adherentRepository.streamSummaries()
+                : adherentRepository.streamSummariesByStatus(status)) {
+            rows.forEach(row -> {
+                try {
+                    if (csv) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+    
+    private static void writeCsvRow(Writer writer, AdherentSummary row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(csvField(row.firstName()));
+        writer.write(',');
+        writer.write(csvField(row.lastName()));
+        writer.write(',');
+        writer.write(csvField(row.email()));
+        writer.write(',');
+        writer.write(row.status() != null ? row.status().name() : "");
+        writer.write(',');
+        writer.write(row.subscriptionType() != null ? row.subscriptionType().name() : "");
+        writer.write(',');
+        writer.write(row.subscriptionEndDate() != null ? row.subscriptionEndDate().toString() : "");
+        writer.write('\n');
+    }
+    
+    // Guillemets si nécessaire (RFC 4180) ; préfixe ' contre l'injection de formules dans les tableurs
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
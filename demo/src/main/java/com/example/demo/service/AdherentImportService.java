@@ -0,0 +1,344 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.ImportReport;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.repository.AdherentBulkRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse d'adhérents depuis un flux CSV ou NDJSON : lecture en continu, validation
+ * et écriture par lots (une transaction par lot), erreurs rapportées ligne par ligne
+ */
+@Service
+public class AdherentImportService {
+    
+    private static final Logger log = Logger.getLogger(AdherentImportService.class.getName());
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+    
+    private final AdherentBulkRepository bulkRepository;
+    private final MembershipCounterService membershipCounterService;
+    private final AdherentSearchIndex searchIndex;
+    private final EligibilitySnapshot eligibilitySnapshot;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    
+    public AdherentImportService(AdherentBulkRepository bulkRepository,
+                                 MembershipCounterService membershipCounterService,
+                                 AdherentSearchIndex searchIndex,
+                                 EligibilitySnapshot eligibilitySnapshot,
+                                 PasswordEncoder passwordEncoder,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${import.chunk-size:500}") int chunkSize) {
+        this.bulkRepository = bulkRepository;
+        this.membershipCounterService = membershipCounterService;
+        this.searchIndex = searchIndex;
+        this.eligibilitySnapshot = eligibilitySnapshot;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+    
+    private record Row(long line, Adherent adherent) {}
+    
+    /**
+     * État d'un import en cours
+     */
+    private final class ImportRun {
+        final String passwordHash = passwordEncoder.encode(AdherentService.DEFAULT_PASSWORD);
+        final Set<String> seenEmails = new HashSet<>();
+        final List<Row> chunk = new ArrayList<>(chunkSize);
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+        int total;
+        int imported;
+        int rejected;
+        
+        void reject(long line, String email, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, email, message));
+            }
+        }
+        
+        void accept(long line, Adherent adherent) {
+            total++;
+            String email = adherent.getEmail() != null ? adherent.getEmail().trim() : null;
+            adherent.setEmail(email);
+            adherent.setStatus(AdherentStatus.ACTIVE);
+            
+            Set<ConstraintViolation<Adherent>> violations = validator.validate(adherent);
+            if (!violations.isEmpty()) {
+                reject(line, email, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+                return;
+            }
+            if (!seenEmails.add(email.toLowerCase(Locale.ROOT))) {
+                reject(line, email, "Email en double dans le fichier");
+                return;
+            }
+            chunk.add(new Row(line, adherent));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+        
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Row> rows = new ArrayList<>(chunk);
+            chunk.clear();
+            
+            // Unicité vérifiée en une requête pour tout le lot
+            Set<String> existing = bulkRepository.findExistingEmails(
+                rows.stream().map(r -> r.adherent().getEmail()).toList());
+            List<Adherent> toInsert = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                if (existing.contains(row.adherent().getEmail())) {
+                    reject(row.line(), row.adherent().getEmail(), "Email existe déjà");
+                } else {
+                    toInsert.add(row.adherent());
+                }
+            }
+            if (toInsert.isEmpty()) {
+                return;
+            }
+            
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    bulkRepository.insertAdherents(toInsert, LocalDateTime.now());
+                    bulkRepository.insertUsers(toInsert, passwordHash);
+                    membershipCounterService.recordCreated(AdherentStatus.ACTIVE, toInsert.size());
+                });
+                for (Adherent adherent : toInsert) {
+                    searchIndex.put(adherent.getId(), adherent.getFirstName(), adherent.getLastName(), adherent.getEmail());
+                }
+                imported += toInsert.size();
+            } catch (DataAccessException e) {
+                // Lot annulé (ex. email créé entre-temps) : les autres lots continuent
+                log.warning("Lot d'import rejeté: " + e.getMostSpecificCause().getMessage());
+                for (Row row : rows) {
+                    if (!existing.contains(row.adherent().getEmail())) {
+                        reject(row.line(), row.adherent().getEmail(),
+                            "Lot rejeté par la base: " + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        
+        ImportReport report() {
+            return new ImportReport(total, imported, rejected, errors, rejected > errors.size());
+        }
+    }
+    
+    /**
+     * Importe les adhérents du flux
+     * @param format "csv" (en-tête obligatoire, séparateur , ou ;) ou "ndjson" (un objet JSON par ligne)
+     */
+    public ImportReport importAdherents(InputStream in, String format) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (FORMAT_CSV.equals(format)) {
+            readCsv(reader, run);
+        } else if (FORMAT_NDJSON.equals(format)) {
+            readNdjson(reader, run);
+        } else {
+            throw new IllegalArgumentException("Format d'import inconnu: " + format);
+        }
+        run.flush();
+        if (run.imported > 0) {
+            eligibilitySnapshot.requestRebuild();
+        }
+        
+        ImportReport report = run.report();
+        log.info("Import terminé: " + report.imported() + " importés, " + report.rejected() + " rejetés");
+        return report;
+    }
+    
+    /**
+     * Déduit le format à partir du paramètre explicite ou du Content-Type
+     */
+    public static String resolveFormat(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            return format.toLowerCase(Locale.ROOT);
+        }
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.contains("csv")) {
+                return FORMAT_CSV;
+            }
+            if (type.contains("ndjson") || type.contains("json")) {
+                return FORMAT_NDJSON;
+            }
+        }
+        throw new IllegalArgumentException("Format d'import non précisé (csv ou ndjson)");
+    }
+    
+    // ===== NDJSON =====
+    
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Adherent adherent;
+            try {
+                adherent = objectMapper.readValue(line, Adherent.class);
+            } catch (JsonProcessingException e) {
+                run.total++;
+                run.reject(lineNumber, null, "JSON invalide: " + e.getOriginalMessage());
+                continue;
+            }
+            // Seules les données personnelles sont importées
+            adherent.setId(null);
+            adherent.setCurrentSubscription(null);
+            adherent.setCurrentMembership(null);
+            adherent.setMedicalCertificate(null);
+            adherent.setMedicalCertificateIssuedOn(null);
+            adherent.setMedicalCertificateExpiresOn(null);
+            adherent.setPhoto(null);
+            run.accept(lineNumber, adherent);
+        }
+    }
+    
+    // ===== CSV =====
+    
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        long[] lineNumber = {0};
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        lineNumber[0]++;
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        char delimiter = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+        List<String> header = parseCsvRecord(headerLine, reader, delimiter, lineNumber);
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = header.get(i).trim().toLowerCase(Locale.ROOT).replaceAll("[ _-]", "");
+        }
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long recordLine = ++lineNumber[0];
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = parseCsvRecord(line, reader, delimiter, lineNumber);
+            Adherent adherent = new Adherent();
+            try {
+                for (int i = 0; i < columns.length && i < values.size(); i++) {
+                    setField(adherent, columns[i], values.get(i).trim());
+                }
+            } catch (DateTimeParseException e) {
+                run.total++;
+                run.reject(recordLine, adherent.getEmail(), "Date de naissance invalide (format AAAA-MM-JJ attendu)");
+                continue;
+            }
+            run.accept(recordLine, adherent);
+        }
+    }
+    
+    private static void setField(Adherent adherent, String column, String value) {
+        String v = value.isEmpty() ? null : value;
+        switch (column) {
+            case "firstname" -> adherent.setFirstName(v);
+            case "lastname" -> adherent.setLastName(v);
+            case "email" -> adherent.setEmail(v);
+            case "phonenumber", "phone" -> adherent.setPhoneNumber(v);
+            case "dateofbirth", "birthdate" -> adherent.setDateOfBirth(v != null ? LocalDate.parse(v) : null);
+            case "address" -> adherent.setAddress(v);
+            case "city" -> adherent.setCity(v);
+            case "postalcode" -> adherent.setPostalCode(v);
+            case "country" -> adherent.setCountry(v);
+            default -> { } // colonnes inconnues ignorées
+        }
+    }
+    
+    /**
+     * Découpe un enregistrement CSV (RFC 4180) : champs entre guillemets, guillemets doublés,
+     * sauts de ligne dans un champ entre guillemets (lignes suivantes lues au besoin)
+     */
+    static List<String> parseCsvRecord(String firstLine, BufferedReader reader, char delimiter,
+                                       long[] lineNumber) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        String line = firstLine;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            lineNumber[0]++;
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
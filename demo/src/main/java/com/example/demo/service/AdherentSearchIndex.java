@@ -0,0 +1,305 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.AdherentSuggestion;
+import org.springframework.stereotype.Component;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index en mémoire par trigrammes sur les noms et emails des adhérents, pour la recherche
+ * instantanée. Les textes sont normalisés (minuscules, sans accents) : « Hélène » est trouvée
+ * en tapant « helene ». Les mots sont préfixés de deux espaces pour que les premières lettres
+ * tapées forment déjà des trigrammes discriminants.
+ *
+ * Chaque adhérent occupe un emplacement entier ; les listes de trigrammes sont des tableaux
+ * d'emplacements triés. Une recherche ne parcourt que les listes les plus courtes qui suffisent
+ * à trouver toutes les entrées atteignant le score minimal.
+ */
+@Component
+public class AdherentSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final double MIN_SCORE = 0.6;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private Entry[] slots = new Entry[INITIAL_CAPACITY];
+    private int nextSlot;
+
+    /**
+     * text concatène les mots normalisés, chacun précédé de deux espaces et suivi d'un espace :
+     * un trigramme recherché y figure si et seulement s'il appartient à l'un des mots
+     */
+    private record Entry(Long id, String displayName, String email, String text) {
+    }
+
+    private record Match(Entry entry, double score, boolean prefix) {
+    }
+
+    private static final Comparator<Match> RANKING = Comparator.comparing(Match::prefix)
+        .thenComparingDouble(Match::score)
+        .thenComparing(m -> m.entry().displayName(), Comparator.reverseOrder());
+
+    // ===== MISE À JOUR =====
+
+    /**
+     * Ajoute ou remplace l'entrée d'un adhérent
+     */
+    public void put(Long id, String firstName, String lastName, String email) {
+        List<String> words = new ArrayList<>();
+        words.addAll(words(firstName));
+        words.addAll(words(lastName));
+        words.addAll(words(email));
+
+        Set<String> grams = new HashSet<>();
+        StringBuilder text = new StringBuilder();
+        for (String word : words) {
+            grams.addAll(trigrams(word, true));
+            text.append("  ").append(word).append(' ');
+        }
+        String displayName = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        Entry entry = new Entry(id, displayName, email, text.toString());
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (nextSlot == slots.length) {
+                if (slotById.size() < slots.length / 2) {
+                    compactLocked();
+                } else {
+                    slots = Arrays.copyOf(slots, slots.length * 2);
+                }
+            }
+            addLocked(entry, grams);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotById.clear();
+            postings.clear();
+            slots = new Entry[INITIAL_CAPACITY];
+            nextSlot = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Entry entry, Set<String> grams) {
+        int slot = nextSlot++;
+        slots[slot] = entry;
+        slotById.put(entry.id(), slot);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new IntList()).add(slot);
+        }
+    }
+
+    /**
+     * L'emplacement libéré reste référencé par les listes ; il est ignoré à la lecture
+     * puis purgé au prochain compactage
+     */
+    private void removeLocked(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            slots[slot] = null;
+        }
+    }
+
+    private void compactLocked() {
+        Entry[] live = Arrays.stream(slots, 0, nextSlot).filter(e -> e != null).toArray(Entry[]::new);
+        slotById.clear();
+        postings.clear();
+        slots = new Entry[Math.max(INITIAL_CAPACITY, live.length * 2)];
+        nextSlot = 0;
+        for (Entry entry : live) {
+            Set<String> grams = new HashSet<>();
+            for (String word : entry.text().trim().split(" +")) {
+                grams.addAll(trigrams(word, true));
+            }
+            addLocked(entry, grams);
+        }
+    }
+
+    // ===== RECHERCHE =====
+
+    /**
+     * Renvoie au plus limit suggestions : correspondances de début de mot d'abord,
+     * puis par proportion de trigrammes communs
+     */
+    public List<AdherentSuggestion> search(String query, int limit) {
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryGrams = new LinkedHashSet<>();
+        for (String word : queryWords) {
+            queryGrams.addAll(trigrams(word, false));
+        }
+        String[] grams = queryGrams.toArray(String[]::new);
+        String[] wordStarts = queryWords.stream().map(w -> " " + w).toArray(String[]::new);
+        int required = (int) Math.ceil(grams.length * MIN_SCORE);
+
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, RANKING);
+        lock.readLock().lock();
+        try {
+            // Une entrée qui contient au moins « required » trigrammes en contient forcément
+            // un parmi les (n - required + 1) listes les plus courtes
+            List<IntList> lists = new ArrayList<>();
+            for (String gram : grams) {
+                IntList list = postings.get(gram);
+                lists.add(list != null ? list : IntList.EMPTY);
+            }
+            lists.sort(Comparator.comparingInt(IntList::size));
+            int probes = grams.length - required + 1;
+
+            BitSet seen = new BitSet(nextSlot);
+            for (int p = 0; p < probes; p++) {
+                IntList list = lists.get(p);
+                for (int i = 0; i < list.size(); i++) {
+                    int slot = list.get(i);
+                    if (seen.get(slot)) {
+                        continue;
+                    }
+                    seen.set(slot);
+                    Entry entry = slots[slot];
+                    if (entry == null) {
+                        continue;
+                    }
+                    int hits = 0;
+                    for (String gram : grams) {
+                        if (entry.text().contains(gram)) {
+                            hits++;
+                        }
+                    }
+                    if (hits < required) {
+                        continue;
+                    }
+                    Match match = new Match(entry, (double) hits / grams.length, startsEveryWord(entry.text(), wordStarts));
+                    if (best.size() < limit) {
+                        best.add(match);
+                    } else if (RANKING.compare(match, best.peek()) > 0) {
+                        best.poll();
+                        best.add(match);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<AdherentSuggestion> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Entry entry = best.poll().entry();
+            result.add(0, new AdherentSuggestion(entry.id(), entry.displayName(), entry.email()));
+        }
+        return result;
+    }
+
+    /**
+     * Vrai si chaque mot recherché est le début d'un mot de l'entrée
+     */
+    private static boolean startsEveryWord(String text, String[] wordStarts) {
+        for (String wordStart : wordStarts) {
+            if (!text.contains(wordStart)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===== NORMALISATION =====
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Trigrammes d'un mot, avec deux espaces de tête. Le mot indexé reçoit aussi un espace final ;
+     * le mot recherché non, car il peut être incomplet (saisie en cours).
+     */
+    static Set<String> trigrams(String word, boolean complete) {
+        String padded = "  " + word + (complete ? " " : "");
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Liste d'entiers extensible, sans boxing
+     */
+    private static final class IntList {
+
+        static final IntList EMPTY = new IntList();
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
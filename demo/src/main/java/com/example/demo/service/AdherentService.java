@@ -1,19 +1,56 @@
 package com.example.demo.service;
 
+import com.example.demo.model.dto.AdherentStatusRow;
+import com.example.demo.model.dto.AdherentSuggestion;
+import com.example.demo.model.dto.AdherentSummary;
+import com.example.demo.model.dto.BulkResult;
+import com.example.demo.model.dto.BulkStatusRequest;
+import com.example.demo.model.dto.CursorPage;
+import com.example.demo.model.dto.EligibilityRow;
+import com.example.demo.model.dto.EligibilityVerdict;
+import com.example.demo.model.dto.StoredDocument;
 import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.entity.Membership;
 import com.example.demo.model.entity.Subscription;
 import com.example.demo.model.entity.User;
 import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.BulkOutcome;
+import com.example.demo.model.enums.EligibilityReason;
 import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.MembershipRepository;
 import com.example.demo.repository.SubscriptionRepository;
 import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 /**
@@ -24,20 +61,58 @@ import java.util.logging.Logger;
 public class AdherentService {
     
     private static final Logger log = Logger.getLogger(AdherentService.class.getName());
+    private static final int MAX_CURSOR_LIMIT = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+    /** Recouvrement des relectures de l'index : couvre les transactions validées peu après leur horodatage */
+    private static final Duration SEARCH_CHANGE_OVERLAP = Duration.ofMinutes(1);
+    private static final int MAX_ELIGIBILITY_IDS = 500;
+    private static final int MAX_BULK_IDS = 5000;
+    /** Taille des listes IN des mises à jour groupées (sélection par type d'abonnement) */
+    private static final int BULK_CHUNK_SIZE = 1000;
+    /**
+     * Champs modifiables par PATCH : fiche complète (administrateur) et profil (adhérent lui-même).
+     * Le certificat médical et ses dates restent réservés à l'administrateur, qui les vérifie ensemble.
+     */
+    private static final Set<String> ADMIN_PATCH_FIELDS = Set.of("firstName", "lastName", "email", "phoneNumber", "dateOfBirth",
+        "address", "city", "postalCode", "country", "photo", "medicalCertificate",
+        "medicalCertificateIssuedOn", "medicalCertificateExpiresOn");
+    private static final Set<String> PROFILE_PATCH_FIELDS = Set.of("email", "phoneNumber",
+        "address", "city", "postalCode", "country", "photo");
+    /** Mot de passe initial des comptes créés pour les adhérents */
+    public static final String DEFAULT_PASSWORD = "user123";
     
     private final AdherentRepository adherentRepository;
     private final SubscriptionRepository subscriptionRepository;
+    private final MembershipRepository membershipRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DocumentStorageService documentStorageService;
+    private final AdherentSearchIndex searchIndex;
+    private final MembershipCounterService membershipCounterService;
+    private final EligibilitySnapshot eligibilitySnapshot;
+    private final Validator validator;
+    private volatile LocalDateTime searchSyncedFrom;
     
     public AdherentService(AdherentRepository adherentRepository, 
                           SubscriptionRepository subscriptionRepository,
+                          MembershipRepository membershipRepository,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          DocumentStorageService documentStorageService,
+                          AdherentSearchIndex searchIndex,
+                          MembershipCounterService membershipCounterService,
+                          EligibilitySnapshot eligibilitySnapshot,
+                          Validator validator) {
         this.adherentRepository = adherentRepository;
         this.subscriptionRepository = subscriptionRepository;
+        this.membershipRepository = membershipRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.documentStorageService = documentStorageService;
+        this.searchIndex = searchIndex;
+        this.membershipCounterService = membershipCounterService;
+        this.eligibilitySnapshot = eligibilitySnapshot;
+        this.validator = validator;
     }
     
     // ===== CRÉATION =====
@@ -48,24 +123,53 @@ public class AdherentService {
         if (adherentRepository.existsByEmail(adherent.getEmail())) {
             throw new IllegalArgumentException("Email existe déjà");
         }
+        if (adherent.getMedicalCertificate() == null || adherent.getMedicalCertificate().length == 0) {
+            throw new IllegalArgumentException("Le certificat médical est obligatoire");
+        }
+        
+        checkCertificateDates(adherent.getMedicalCertificateIssuedOn(), adherent.getMedicalCertificateExpiresOn());
         
         adherent.setStatus(AdherentStatus.ACTIVE);
+        storeDocuments(adherent, adherent);
         Adherent savedAdherent = adherentRepository.save(adherent);
         
         // Create User account for the adherent with default password
         if (!userRepository.existsByUsername(adherent.getEmail())) {
             User user = new User();
             user.setUsername(adherent.getEmail());
-            user.setPassword(passwordEncoder.encode("user123"));
+            user.setPassword(passwordEncoder.encode(DEFAULT_PASSWORD));
             user.setRole("USER");
             user.setAdherent(savedAdherent);
             userRepository.save(user);
             log.info("Compte utilisateur créé pour: " + adherent.getEmail());
         }
         
+        adherentCreated(savedAdherent);
         return savedAdherent;
     }
     
+    /**
+     * Met à jour les compteurs et l'index de recherche pour un adhérent créé (y compris hors de ce service)
+     */
+    public void adherentCreated(Adherent saved) {
+        membershipCounterService.recordCreated(saved.getStatus(), 1);
+        adherentUpdated(saved);
+    }
+    
+    /**
+     * Répercute une modification sur l'index de recherche et l'instantané d'éligibilité
+     */
+    public void adherentUpdated(Adherent saved) {
+        indexAdherent(saved);
+        eligibilitySnapshot.update(saved);
+    }
+    
+    private Adherent saveAndRefresh(Adherent adherent) {
+        Adherent saved = adherentRepository.save(adherent);
+        eligibilitySnapshot.update(saved);
+        return saved;
+    }
+    
     // ===== LECTURE =====
     
     @Transactional(readOnly = true)
@@ -101,6 +205,101 @@ public class AdherentService {
         return adherentRepository.findByStatus(status);
     }
     
+    // ===== RECHERCHE INSTANTANÉE =====
+    
+    public List<AdherentSuggestion> suggestAdherents(String query, int limit) {
+        return searchIndex.search(query, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+    
+    /**
+     * Met à jour l'entrée de l'adhérent dans l'index de recherche, après validation de la transaction
+     * (valeurs relevées à l'appel) : une modification annulée n'apparaît jamais dans les suggestions
+     */
+    public void indexAdherent(Adherent adherent) {
+        Long id = adherent.getId();
+        if (adherent.getStatus() == AdherentStatus.DEACTIVATED) {
+            TransactionHooks.afterCommit(() -> searchIndex.remove(id));
+        } else {
+            String firstName = adherent.getFirstName();
+            String lastName = adherent.getLastName();
+            String email = adherent.getEmail();
+            TransactionHooks.afterCommit(() -> searchIndex.put(id, firstName, lastName, email));
+        }
+    }
+    
+    /**
+     * Construit l'index de recherche au démarrage à partir de la projection (pas d'entités chargées)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        searchIndex.clear();
+        for (AdherentSummary summary : adherentRepository.findSearchableSummaries()) {
+            searchIndex.put(summary.id(), summary.firstName(), summary.lastName(), summary.email());
+        }
+        searchSyncedFrom = startedAt;
+        log.info("Index de recherche construit: " + searchIndex.size() + " adhérents");
+    }
+    
+    /**
+     * Reporte dans l'index les adhérents modifiés depuis la dernière relecture, par cette instance
+     * ou une autre (créations, changements de nom ou d'email, désactivations)
+     * @return nombre d'adhérents relus
+     */
+    @Transactional(readOnly = true)
+    public int pollSearchIndexChanges() {
+        LocalDateTime from = searchSyncedFrom;
+        if (from == null) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AdherentSummary> changed = adherentRepository.findSummariesUpdatedSince(from.minus(SEARCH_CHANGE_OVERLAP));
+        for (AdherentSummary summary : changed) {
+            if (summary.status() == AdherentStatus.DEACTIVATED) {
+                searchIndex.remove(summary.id());
+            } else {
+                searchIndex.put(summary.id(), summary.firstName(), summary.lastName(), summary.email());
+            }
+        }
+        searchSyncedFrom = now;
+        return changed.size();
+    }
+    
+    // ===== LECTURE (VUES RÉSUMÉES) =====
+    
+    @Transactional(readOnly = true)
+    public Page<AdherentSummary> getAllAdherentSummaries(int page, int size) {
+        return adherentRepository.findSummariesExcludingAdmins(PageRequest.of(page, size));
+    }
+    
+    /**
+     * Parcours par curseur : le coût reste constant quelle que soit la profondeur
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AdherentSummary> getAdherentSummariesAfter(String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+        Slice<AdherentSummary> slice = adherentRepository.findSummariesAfter(decodeCursor(cursor), PageRequest.of(0, size));
+        List<AdherentSummary> content = slice.getContent();
+        String next = slice.hasNext() ? encodeCursor(content.get(content.size() - 1).id()) : null;
+        return new CursorPage<>(content, next, slice.hasNext());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AdherentSummary> getActiveAdherentSummaries() {
+        return adherentRepository.findActiveSummaries();
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AdherentSummary> searchAdherentSummariesByName(String search) {
+        return adherentRepository.searchSummariesByName(search);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<AdherentSummary> getAdherentSummariesByStatus(String status, int page, int size) {
+        return adherentRepository.findSummariesByStatus(parseStatus(status), PageRequest.of(page, size));
+    }
+    
     // ===== MODIFICATION =====
     
     public Adherent updateAdherent(Long id, Adherent updates) {
@@ -118,32 +317,206 @@ public class AdherentService {
         if (updates.getPostalCode() != null) adherent.setPostalCode(updates.getPostalCode());
         if (updates.getCountry() != null) adherent.setCountry(updates.getCountry());
         
-        // Photo
-        if (updates.getPhoto() != null) adherent.setPhoto(updates.getPhoto());
+        // Dates du certificat (si fournies), puis photo et certificat médical (si fournis)
+        updateCertificateDates(adherent, updates);
+        storeDocuments(adherent, updates);
         
-        // Certificat médical (si fourni)
-        if (updates.getMedicalCertificate() != null) {
-            adherent.setMedicalCertificate(updates.getMedicalCertificate());
+        Adherent saved = adherentRepository.save(adherent);
+        adherentUpdated(saved);
+        return saved;
+    }
+    
+    // ===== MODIFICATION PARTIELLE (JSON MERGE PATCH) =====
+    
+    /**
+     * Applique un JSON Merge Patch (RFC 7396) à la fiche : seuls les champs présents sont modifiés,
+     * et l'UPDATE généré ne porte que sur les colonnes changées, sous condition de version.
+     * @param expectedVersion version lue par le client (If-Match), ou null pour ne pas la vérifier
+     */
+    public Adherent patchAdherent(Long id, JsonNode patch, Long expectedVersion) {
+        return applyPatch(getAdherentById(id), patch, expectedVersion, ADMIN_PATCH_FIELDS);
+    }
+    
+    /**
+     * Merge Patch du profil de l'utilisateur connecté (sous-ensemble des champs de la fiche)
+     */
+    public Adherent patchProfile(String username, JsonNode patch, Long expectedVersion) {
+        Long id = userRepository.findAdherentIdByUsername(username)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Aucun adhérent lié à ce compte"));
+        return applyPatch(getAdherentById(id), patch, expectedVersion, PROFILE_PATCH_FIELDS);
+    }
+    
+    private Adherent applyPatch(Adherent adherent, JsonNode patch, Long expectedVersion, Set<String> allowedFields) {
+        if (patch == null || !patch.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le patch doit être un objet JSON");
+        }
+        if (expectedVersion != null && !expectedVersion.equals(adherent.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Adhérent modifié depuis sa lecture");
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!allowedFields.contains(field.getKey())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ non modifiable: " + field.getKey());
+            }
+            applyPatchField(adherent, field.getKey(), field.getValue());
+            Set<ConstraintViolation<Adherent>> violations = validator.validateProperty(adherent, field.getKey());
+            if (!violations.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, violations.iterator().next().getMessage());
+            }
+        }
+        LocalDate issuedOn = adherent.getMedicalCertificateIssuedOn();
+        LocalDate expiresOn = adherent.getMedicalCertificateExpiresOn();
+        if (issuedOn != null && expiresOn != null && expiresOn.isBefore(issuedOn)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date d'expiration doit suivre la date de délivrance");
         }
         
-        return adherentRepository.save(adherent);
+        Adherent saved;
+        try {
+            // Flush immédiat : un conflit de version est signalé ici plutôt qu'au commit
+            saved = adherentRepository.saveAndFlush(adherent);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Adhérent modifié depuis sa lecture");
+        }
+        adherentUpdated(saved);
+        return saved;
+    }
+    
+    private void applyPatchField(Adherent adherent, String name, JsonNode value) {
+        switch (name) {
+            case "firstName" -> adherent.setFirstName(patchText(name, value, true));
+            case "lastName" -> adherent.setLastName(patchText(name, value, true));
+            case "phoneNumber" -> adherent.setPhoneNumber(patchText(name, value, true));
+            case "address" -> adherent.setAddress(patchText(name, value, true));
+            case "city" -> adherent.setCity(patchText(name, value, false));
+            case "postalCode" -> adherent.setPostalCode(patchText(name, value, false));
+            case "country" -> adherent.setCountry(patchText(name, value, false));
+            case "email" -> {
+                String email = patchText(name, value, true);
+                if (!email.equalsIgnoreCase(adherent.getEmail()) && adherentRepository.existsByEmail(email)) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Email existe déjà");
+                }
+                adherent.setEmail(email);
+            }
+            case "dateOfBirth" -> {
+                try {
+                    adherent.setDateOfBirth(LocalDate.parse(patchText(name, value, true)));
+                } catch (DateTimeParseException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date de naissance invalide");
+                }
+            }
+            case "medicalCertificateIssuedOn" -> adherent.setMedicalCertificateIssuedOn(patchDate(name, value));
+            case "medicalCertificateExpiresOn" -> adherent.setMedicalCertificateExpiresOn(patchDate(name, value));
+            case "photo" -> adherent.attachPhoto(documentStorageService.store(patchDocument(name, value)));
+            case "medicalCertificate" ->
+                adherent.attachMedicalCertificate(documentStorageService.store(patchDocument(name, value)));
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ non modifiable: " + name);
+        }
+    }
+    
+    // null efface le champ (Merge Patch), sauf pour les champs obligatoires
+    private static String patchText(String name, JsonNode value, boolean required) {
+        if (value.isNull()) {
+            if (required) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ obligatoire: " + name);
+            }
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valeur texte attendue pour " + name);
+        }
+        return value.asText();
+    }
+    
+    // Date ISO (AAAA-MM-JJ), null efface la date
+    private static LocalDate patchDate(String name, JsonNode value) {
+        String text = patchText(name, value, false);
+        try {
+            return text != null ? LocalDate.parse(text) : null;
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date invalide pour " + name);
+        }
+    }
+    
+    // Contenu base64, comme dans le corps des créations et des PUT
+    private static byte[] patchDocument(String name, JsonNode value) {
+        try {
+            byte[] content = value.isTextual() ? Base64.getDecoder().decode(value.asText()) : null;
+            if (content == null || content.length == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contenu base64 attendu pour " + name);
+            }
+            return content;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Contenu base64 invalide pour " + name);
+        }
+    }
+    
+    /**
+     * Reprend les dates du certificat transmises avec la fiche ; une date absente reste inchangée
+     */
+    private void updateCertificateDates(Adherent adherent, Adherent updates) {
+        LocalDate issuedOn = updates.getMedicalCertificateIssuedOn() != null
+            ? updates.getMedicalCertificateIssuedOn() : adherent.getMedicalCertificateIssuedOn();
+        LocalDate expiresOn = updates.getMedicalCertificateExpiresOn() != null
+            ? updates.getMedicalCertificateExpiresOn() : adherent.getMedicalCertificateExpiresOn();
+        checkCertificateDates(issuedOn, expiresOn);
+        adherent.setMedicalCertificateIssuedOn(issuedOn);
+        adherent.setMedicalCertificateExpiresOn(expiresOn);
+    }
+    
+    private static void checkCertificateDates(LocalDate issuedOn, LocalDate expiresOn) {
+        if (issuedOn != null && expiresOn != null && expiresOn.isBefore(issuedOn)) {
+            throw new IllegalArgumentException("La date d'expiration doit suivre la date de délivrance");
+        }
+    }
+    
+    /**
+     * Dépose les documents transmis dans le stockage et rattache leurs références à l'adhérent,
+     * sans toucher aux dates du certificat
+     */
+    public void storeDocuments(Adherent adherent, Adherent source) {
+        byte[] certificate = source.getMedicalCertificate();
+        if (certificate != null && certificate.length > 0) {
+            adherent.attachMedicalCertificate(documentStorageService.store(certificate));
+        }
+        byte[] photo = source.getPhoto();
+        if (photo != null && photo.length > 0) {
+            adherent.attachPhoto(documentStorageService.store(photo));
+        }
+        source.setMedicalCertificate(null);
+        source.setPhoto(null);
     }
     
     public Adherent assignSubscription(Long adherentId, Subscription subscription) {
         Adherent adherent = getAdherentById(adherentId);
         Subscription saved = subscriptionRepository.save(subscription);
-        adherent.setCurrentSubscription(saved);
-        return adherentRepository.save(adherent);
+        startMembership(adherent, saved);
+        return saveAndRefresh(adherent);
+    }
+    
+    /**
+     * Ouvre une adhésion à la formule pour l'adhérent, en clôturant la précédente
+     */
+    private void startMembership(Adherent adherent, Subscription plan) {
+        LocalDate today = LocalDate.now();
+        Membership previous = adherent.getCurrentMembership();
+        if (previous != null) {
+            previous.end(today);
+        }
+        Membership membership = membershipRepository.save(new Membership(adherent, plan, today));
+        adherent.setCurrentMembership(membership);
+        adherent.setCurrentSubscription(plan);
     }
     
     // ===== STATUT =====
     
     public Adherent suspendAdherent(Long id, String reason) {
         Adherent adherent = getAdherentById(id);
+        membershipCounterService.recordTransition(adherent.getStatus(), AdherentStatus.SUSPENDED);
         adherent.setStatus(AdherentStatus.SUSPENDED);
         adherent.setSuspendedReason(reason);
         adherent.setSuspendedDate(LocalDateTime.now());
-        return adherentRepository.save(adherent);
+        return saveAndRefresh(adherent);
     }
     
     public Adherent reactivateAdherent(Long id) {
@@ -153,16 +526,115 @@ public class AdherentService {
             throw new IllegalStateException("Seul un adhérent suspendu peut être réactivé");
         }
         
+        membershipCounterService.recordTransition(adherent.getStatus(), AdherentStatus.ACTIVE);
         adherent.setStatus(AdherentStatus.ACTIVE);
         adherent.setSuspendedReason(null);
         adherent.setSuspendedDate(null);
-        return adherentRepository.save(adherent);
+        return saveAndRefresh(adherent);
     }
     
     public void deactivateAdherent(Long id) {
         Adherent adherent = getAdherentById(id);
+        membershipCounterService.recordTransition(adherent.getStatus(), AdherentStatus.DEACTIVATED);
         adherent.setStatus(AdherentStatus.DEACTIVATED);
-        adherentRepository.save(adherent);
+        saveAndRefresh(adherent);
+        TransactionHooks.afterCommit(() -> searchIndex.remove(id));
+    }
+    
+    // ===== STATUT GROUPÉ =====
+    
+    /**
+     * Suspend les adhérents actifs ou expirés du lot (ex. impayés d'un type d'abonnement)
+     */
+    public BulkResult suspendAdherents(BulkStatusRequest request) {
+        String reason = request.reason() == null ? "" : request.reason();
+        LocalDateTime now = LocalDateTime.now();
+        return changeStatus(request, AdherentStatus.SUSPENDED, Set.of(AdherentStatus.ACTIVE, AdherentStatus.EXPIRED),
+            ids -> adherentRepository.suspendAll(ids, reason, now));
+    }
+    
+    public BulkResult reactivateAdherents(BulkStatusRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        return changeStatus(request, AdherentStatus.ACTIVE, Set.of(AdherentStatus.SUSPENDED),
+            ids -> adherentRepository.reactivateAll(ids, now));
+    }
+    
+    public BulkResult deactivateAdherents(BulkStatusRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkResult result = changeStatus(request, AdherentStatus.DEACTIVATED,
+            Set.of(AdherentStatus.ACTIVE, AdherentStatus.EXPIRED, AdherentStatus.SUSPENDED),
+            ids -> adherentRepository.deactivateAll(ids, now));
+        List<Long> deactivated = result.outcomes().entrySet().stream()
+            .filter(entry -> entry.getValue() == BulkOutcome.UPDATED)
+            .map(Map.Entry::getKey)
+            .toList();
+        TransactionHooks.afterCommit(() -> deactivated.forEach(searchIndex::remove));
+        return result;
+    }
+    
+    /**
+     * Lit les statuts du lot (projection), puis applique la transition par une instruction
+     * conditionnelle par tranche : une ligne modifiée entre-temps n'est simplement pas touchée.
+     * Les compteurs sont mis à jour par statut d'origine et l'instantané d'éligibilité est reconstruit.
+     */
+    private BulkResult changeStatus(BulkStatusRequest request, AdherentStatus target, Set<AdherentStatus> from,
+                                    Function<List<Long>, Integer> update) {
+        Map<Long, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<AdherentStatusRow> rows = resolveBulkTargets(request, outcomes);
+        
+        List<Long> candidates = new ArrayList<>();
+        Map<AdherentStatus, Long> transitions = new EnumMap<>(AdherentStatus.class);
+        for (AdherentStatusRow row : rows) {
+            if (row.status() == target) {
+                outcomes.put(row.id(), BulkOutcome.UNCHANGED);
+            } else if (from.contains(row.status())) {
+                outcomes.put(row.id(), BulkOutcome.UPDATED);
+                candidates.add(row.id());
+                transitions.merge(row.status(), 1L, Long::sum);
+            } else {
+                outcomes.put(row.id(), BulkOutcome.NOT_APPLICABLE);
+            }
+        }
+        
+        int updated = 0;
+        for (int i = 0; i < candidates.size(); i += BULK_CHUNK_SIZE) {
+            updated += update.apply(candidates.subList(i, Math.min(i + BULK_CHUNK_SIZE, candidates.size())));
+        }
+        if (updated != candidates.size()) {
+            // Statut modifié par une autre transaction entre la lecture et la mise à jour :
+            // l'écart de compteurs est corrigé par la réconciliation périodique
+            log.warning("Changement de statut groupé vers " + target + ": " + updated + " lignes modifiées sur "
+                + candidates.size() + " attendues");
+        }
+        transitions.forEach((status, count) -> membershipCounterService.recordTransition(status, target, count));
+        if (updated > 0) {
+            eligibilitySnapshot.requestRebuild();
+        }
+        log.info("Changement de statut groupé vers " + target + ": " + updated + " adhérents");
+        return new BulkResult(outcomes.size(), updated, outcomes);
+    }
+    
+    private List<AdherentStatusRow> resolveBulkTargets(BulkStatusRequest request, Map<Long, BulkOutcome> outcomes) {
+        if (request.ids() != null && !request.ids().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(request.ids());
+            ids.remove(null);
+            if (ids.size() > MAX_BULK_IDS) {
+                throw new IllegalArgumentException("Au plus " + MAX_BULK_IDS + " adhérents par opération groupée");
+            }
+            // Ordre des identifiants demandés ; les absents restent NOT_FOUND
+            ids.forEach(id -> outcomes.put(id, BulkOutcome.NOT_FOUND));
+            return ids.isEmpty() ? List.of() : adherentRepository.findStatusRows(ids);
+        }
+        if (request.subscriptionType() != null) {
+            List<AdherentStatusRow> rows = adherentRepository.findStatusRowsBySubscriptionType(
+                request.subscriptionType(), PageRequest.of(0, MAX_BULK_IDS + 1));
+            if (rows.size() > MAX_BULK_IDS) {
+                throw new IllegalArgumentException("Au plus " + MAX_BULK_IDS + " adhérents par opération groupée "
+                    + "(type " + request.subscriptionType() + " : préciser la liste d'identifiants)");
+            }
+            return rows;
+        }
+        throw new IllegalArgumentException("Liste d'identifiants ou type d'abonnement obligatoire");
     }
     
     // ===== ABONNEMENT =====
@@ -174,36 +646,122 @@ public class AdherentService {
     
     @Transactional(readOnly = true)
     public boolean isEligibleForSession(Long adherentId) {
-        return getAdherentById(adherentId).isEligibleForSession();
+        EligibilityVerdict verdict = checkEligibility(List.of(adherentId)).get(adherentId);
+        if (verdict.reason() == EligibilityReason.NOT_FOUND) {
+            throw new IllegalArgumentException("Adhérent non trouvé");
+        }
+        return verdict.eligible();
+    }
+    
+    /**
+     * Éligibilité d'un lot d'adhérents (appel à l'entrée d'un cours) : une seule requête de projection,
+     * verdicts rendus dans l'ordre des identifiants demandés
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, EligibilityVerdict> checkEligibility(List<Long> adherentIds) {
+        if (adherentIds == null || adherentIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>(adherentIds);
+        ids.remove(null);
+        if (ids.size() > MAX_ELIGIBILITY_IDS) {
+            throw new IllegalArgumentException("Au plus " + MAX_ELIGIBILITY_IDS + " adhérents par vérification");
+        }
+        LocalDate today = LocalDate.now();
+        Map<Long, EligibilityVerdict> verdicts = new LinkedHashMap<>();
+        ids.forEach(id -> verdicts.put(id, EligibilityVerdict.of(EligibilityReason.NOT_FOUND)));
+        if (!ids.isEmpty()) {
+            for (EligibilityRow row : adherentRepository.findEligibilityRows(ids)) {
+                verdicts.put(row.id(), EligibilityVerdict.of(row.evaluate(today)));
+            }
+        }
+        return verdicts;
     }
     
     @Transactional(readOnly = true)
     public int getWeeklySessionLimit(Long adherentId) {
         Adherent adherent = getAdherentById(adherentId);
         if (!adherent.hasActiveSubscription()) return 0;
+        if (adherent.getCurrentMembership() != null) {
+            return adherent.getCurrentMembership().getWeeklySessionsLimit();
+        }
         return adherent.getCurrentSubscription().getWeeklySessionLimit();
     }
     
     // ===== CERTIFICATS MÉDICAUX =====
     
-    public Adherent updateMedicalCertificate(Long id, byte[] certificate) {
-        Adherent adherent = adherentRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Adhérent non trouvé"));
-        adherent.setMedicalCertificate(certificate);
-        adherent.setUpdatedAt(LocalDateTime.now());
-        return adherentRepository.save(adherent);
+    /**
+     * Enregistre un certificat transmis en flux : la taille annoncée est contrôlée avant toute
+     * lecture, puis le contenu est copié par blocs vers le stockage. Aucune transaction n'est
+     * ouverte pendant le transfert ; seule la référence est ensuite mise à jour.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StoredDocument updateMedicalCertificate(Long id, InputStream content, long declaredLength,
+                                                   LocalDate issuedOn, LocalDate expiresOn) {
+        documentStorageService.checkDeclaredSize(declaredLength);
+        checkCertificateDates(issuedOn, expiresOn);
+        if (!adherentRepository.existsById(id)) {
+            throw new IllegalArgumentException("Adhérent non trouvé");
+        }
+        StoredDocument document = documentStorageService.storeUpload(content);
+        adherentRepository.updateMedicalCertificate(id, document.ref(), document.size(),
+            document.contentType(), issuedOn, expiresOn, LocalDateTime.now());
+        eligibilitySnapshot.reload(id);
+        return document;
     }
     
+    /**
+     * Certificat déposé et non expiré aujourd'hui : une requête sur les métadonnées, aucun document lu
+     */
+    @Transactional(readOnly = true)
     public boolean isMedicalCertificateValid(Long id) {
-        Adherent adherent = adherentRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Adhérent non trouvé"));
-        return adherent.getMedicalCertificate() != null && adherent.getMedicalCertificate().length > 0;
+        if (!adherentRepository.existsById(id)) {
+            throw new IllegalArgumentException("Adhérent non trouvé");
+        }
+        return adherentRepository.hasValidMedicalCertificate(id, LocalDate.now());
+    }
+    
+    @Transactional(readOnly = true)
+    public StoredDocument getMedicalCertificate(Long id) {
+        return adherentRepository.findMedicalCertificate(id)
+            .orElseThrow(() -> new IllegalArgumentException("Certificat médical non trouvé"));
+    }
+    
+    /**
+     * Photo de l'adhérent ; un utilisateur n'accède qu'à la sienne
+     */
+    @Transactional(readOnly = true)
+    public StoredDocument getPhoto(Long id, String username, boolean admin) {
+        if (!admin && !userRepository.findAdherentIdByUsername(username).map(id::equals).orElse(false)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Photo d'un autre adhérent");
+        }
+        return adherentRepository.findPhoto(id)
+            .orElseThrow(() -> new IllegalArgumentException("Photo non trouvée"));
     }
 
     public Page<Adherent> getAdherentsByStatus(String status, int page, int size) {
+        return adherentRepository.findByStatus(parseStatus(status), PageRequest.of(page, size));
+    }
+    
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+    }
+    
+    private AdherentStatus parseStatus(String status) {
         try {
-            AdherentStatus enumStatus = AdherentStatus.valueOf(status.toUpperCase());
-            return adherentRepository.findByStatus(enumStatus, PageRequest.of(page, size));
+            return AdherentStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Statut invalide: " + status);
         }
@@ -213,20 +771,17 @@ public class AdherentService {
         Adherent adherent = getAdherentById(adherentId);
         Subscription subscription = subscriptionRepository.findById(subscriptionId)
             .orElseThrow(() -> new IllegalArgumentException("Abonnement non trouvé avec l'ID: " + subscriptionId));
-        adherent.setCurrentSubscription(subscription);
-        return adherentRepository.save(adherent);
+        startMembership(adherent, subscription);
+        return saveAndRefresh(adherent);
     }
 
     public Adherent removeSubscription(Long adherentId) {
         Adherent adherent = getAdherentById(adherentId);
+        if (adherent.getCurrentMembership() != null) {
+            adherent.getCurrentMembership().end(LocalDate.now());
+            adherent.setCurrentMembership(null);
+        }
         adherent.setCurrentSubscription(null);
-        return adherentRepository.save(adherent);
-    }
-
-    // ===== BATCH =====
-
-    @Transactional
-    public void processExpiredSubscriptions() {
-        // Plus de gestion d'expiration basée sur des dates
+        return saveAndRefresh(adherent);
     }
 }
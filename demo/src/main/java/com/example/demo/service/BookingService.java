@@ -0,0 +1,166 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.BookingCandidate;
+import com.example.demo.model.dto.BookingView;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.entity.Booking;
+import com.example.demo.model.entity.Membership;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.BookingStatus;
+import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.MembershipRepository;
+import com.example.demo.repository.MembershipWeekUsageRepository;
+import com.example.demo.repository.TrainingSessionRepository;
+import com.example.demo.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Réservation des séances.
+ *
+ * Aucun contrôle n'est fait par lecture puis écriture : la limite hebdomadaire et la capacité
+ * sont vérifiées par l'instruction qui les modifie (0 ligne modifiée = refus), ce qui exclut
+ * toute surréservation sous concurrence. La place est prise en dernier pour que le verrou sur
+ * la ligne de la séance, partagée par tous les inscrits, ne soit tenu que jusqu'au commit.
+ * Réservation et annulation verrouillent dans le même ordre : semaine, réservation, séance.
+ */
+@Service
+@Transactional
+public class BookingService {
+
+    private final BookingRepository bookingRepository;
+    private final TrainingSessionRepository trainingSessionRepository;
+    private final MembershipWeekUsageRepository weekUsageRepository;
+    private final MembershipRepository membershipRepository;
+    private final AdherentRepository adherentRepository;
+    private final UserRepository userRepository;
+
+    public BookingService(BookingRepository bookingRepository,
+                          TrainingSessionRepository trainingSessionRepository,
+                          MembershipWeekUsageRepository weekUsageRepository,
+                          MembershipRepository membershipRepository,
+                          AdherentRepository adherentRepository,
+                          UserRepository userRepository) {
+        this.bookingRepository = bookingRepository;
+        this.trainingSessionRepository = trainingSessionRepository;
+        this.weekUsageRepository = weekUsageRepository;
+        this.membershipRepository = membershipRepository;
+        this.adherentRepository = adherentRepository;
+        this.userRepository = userRepository;
+    }
+
+    // ===== RÉSERVATION =====
+
+    public BookingView bookForUser(Long sessionId, String username) {
+        BookingCandidate candidate = adherentRepository.findBookingCandidateByUsername(username)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Aucun adhérent lié à ce compte"));
+        return book(sessionId, candidate);
+    }
+
+    public BookingView bookForAdherent(Long sessionId, Long adherentId) {
+        BookingCandidate candidate = adherentRepository.findBookingCandidate(adherentId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Adhérent non trouvé avec l'ID: " + adherentId));
+        return book(sessionId, candidate);
+    }
+
+    private BookingView book(Long sessionId, BookingCandidate candidate) {
+        if (sessionId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La séance est obligatoire");
+        }
+        LocalDateTime startsAt = trainingSessionRepository.findStartsAtById(sessionId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Séance non trouvée avec l'ID: " + sessionId));
+        LocalDateTime now = LocalDateTime.now();
+        if (!startsAt.isAfter(now)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La séance a déjà commencé");
+        }
+        LocalDate day = startsAt.toLocalDate();
+        checkEligibility(candidate, day);
+
+        int week = Membership.weekKey(day);
+        if (weekUsageRepository.consume(candidate.membershipId(), week, candidate.weeklySessionsLimit()) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Limite hebdomadaire de séances atteinte");
+        }
+
+        Membership membership = membershipRepository.getReferenceById(candidate.membershipId());
+        if (bookingRepository.reconfirm(sessionId, candidate.adherentId(), membership, week) == 0) {
+            Booking booking = new Booking(trainingSessionRepository.getReferenceById(sessionId),
+                adherentRepository.getReferenceById(candidate.adherentId()), membership, week);
+            try {
+                bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Déjà inscrit à cette séance");
+            }
+        }
+
+        if (trainingSessionRepository.reservePlace(sessionId, now) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Séance complète");
+        }
+        return bookingRepository.findView(sessionId, candidate.adherentId()).orElseThrow();
+    }
+
+    private void checkEligibility(BookingCandidate candidate, LocalDate day) {
+        if (candidate.status() != AdherentStatus.ACTIVE) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Adhérent non actif");
+        }
+        if (!candidate.hasMedicalCertificate()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Certificat médical manquant");
+        }
+        if (Adherent.certificateExpired(candidate.medicalCertificateExpiresOn(), day)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Certificat médical expiré à la date de la séance");
+        }
+        if (candidate.membershipId() == null
+                || !Membership.coversDate(candidate.membershipStart(), candidate.membershipEnd(), day)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Aucune adhésion valide à la date de la séance");
+        }
+    }
+
+    // ===== ANNULATION =====
+
+    /**
+     * Annule une réservation ; un adhérent ne peut annuler que les siennes
+     */
+    public void cancel(Long bookingId, String username, boolean admin) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Réservation non trouvée avec l'ID: " + bookingId));
+        Long adherentId = booking.getAdherent().getId();
+        if (!admin && !userRepository.findAdherentIdByUsername(username).map(adherentId::equals).orElse(false)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Réservation d'un autre adhérent");
+        }
+        if (booking.getStatus() != BookingStatus.CONFIRMED) {
+            return;
+        }
+        Long sessionId = booking.getSession().getId();
+        LocalDateTime startsAt = trainingSessionRepository.findStartsAtById(sessionId).orElseThrow();
+        if (!startsAt.isAfter(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La séance a déjà commencé");
+        }
+        Long membershipId = booking.getMembership().getId();
+        weekUsageRepository.lockWeek(membershipId, booking.getWeek());
+        // Seule l'annulation qui fait passer la réservation à CANCELLED rend la place et la séance
+        if (bookingRepository.cancel(bookingId, LocalDateTime.now()) == 1) {
+            trainingSessionRepository.releasePlace(sessionId);
+            weekUsageRepository.release(membershipId, booking.getWeek());
+        }
+    }
+
+    // ===== LECTURE =====
+
+    @Transactional(readOnly = true)
+    public List<BookingView> getBookingsForUser(String username) {
+        Long adherentId = userRepository.findAdherentIdByUsername(username)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Aucun adhérent lié à ce compte"));
+        return bookingRepository.findViewsByAdherent(adherentId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingView> getBookingsForAdherent(Long adherentId) {
+        return bookingRepository.findViewsByAdherent(adherentId);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import com.example.demo.model.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -27,9 +28,12 @@ public class CustomUserDetailsService implements UserDetailsService {
         // Convertir le rôle en utilisant le préfixe ROLE_
         String authority = "ROLE_" + user.getRole();
         
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
             user.getUsername(),
             user.getPassword(),
+            user.getRole(),
+            user.getTokenVersion(),
+            user.isEnabled(),
             List.of(new SimpleGrantedAuthority(authority))
         );
     }
@@ -0,0 +1,206 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.StoredDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Stockage des documents des adhérents (certificats médicaux, photos) sur le système de fichiers.
+ * Les fichiers sont adressés par l'empreinte SHA-256 de leur contenu : un contenu identique
+ * n'est stocké qu'une fois et la ligne de l'adhérent ne conserve que la référence.
+ */
+@Service
+public class DocumentStorageService {
+
+    private static final Logger log = Logger.getLogger(DocumentStorageService.class.getName());
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int SIGNATURE_LENGTH = 8;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    /** Types servis tels quels au téléchargement ; tout autre type enregistré est servi en octet-stream */
+    private static final Set<String> SERVED_CONTENT_TYPES = Set.of("application/pdf", "image/png", "image/jpeg");
+
+    private final Path root;
+    private final long maxUploadSize;
+
+    public DocumentStorageService(@Value("${storage.documents.path:./data/documents}") String root,
+                                  @Value("${storage.documents.max-upload-size:10MB}") DataSize maxUploadSize) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.maxUploadSize = maxUploadSize.toBytes();
+    }
+
+    // ===== ÉCRITURE =====
+
+    public StoredDocument store(InputStream content) {
+        return store(content, Long.MAX_VALUE);
+    }
+
+    /**
+     * Enregistre un envoi client en appliquant la taille maximale autorisée
+     */
+    public StoredDocument storeUpload(InputStream content) {
+        return store(content, maxUploadSize);
+    }
+
+    /**
+     * Refuse un envoi dont la taille annoncée (Content-Length) dépasse la limite, avant toute lecture
+     */
+    public void checkDeclaredSize(long declaredLength) {
+        if (declaredLength > maxUploadSize) {
+            throw new MaxUploadSizeExceededException(maxUploadSize);
+        }
+    }
+
+    /**
+     * Copie le flux par blocs dans un fichier temporaire en calculant l'empreinte et la taille
+     * au fil de l'eau, puis le déplace à son emplacement définitif. La copie s'interrompt dès
+     * que la taille dépasse maxBytes, sans lire le reste du flux. Le type enregistré est toujours
+     * celui détecté sur le contenu, jamais le Content-Type annoncé par le client.
+     */
+    public StoredDocument store(InputStream content, long maxBytes) {
+        MessageDigest digest = sha256();
+        Path temp = null;
+        try {
+            byte[] head = content.readNBytes(SIGNATURE_LENGTH);
+            String contentType = detectContentType(head);
+            content = new SequenceInputStream(new ByteArrayInputStream(head), content);
+
+            Files.createDirectories(root);
+            temp = Files.createTempFile(root, "upload-", ".tmp");
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new MaxUploadSizeExceededException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String ref = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(ref);
+            if (Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            temp = null;
+            return new StoredDocument(ref, size, contentType);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'enregistrer le document", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Enregistre un contenu déjà en mémoire (base64 des créations, PUT et PATCH JSON), soumis
+     * à la même limite que les envois en flux
+     */
+    public StoredDocument store(byte[] content) {
+        checkDeclaredSize(content.length);
+        return store(new ByteArrayInputStream(content), maxUploadSize);
+    }
+
+    // ===== LECTURE =====
+
+    /**
+     * Recopie le document vers le flux de sortie par blocs, sans le charger en mémoire
+     */
+    public void copyTo(String ref, OutputStream out) throws IOException {
+        try (InputStream in = Files.newInputStream(resolve(ref))) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Type à annoncer au téléchargement : les documents enregistrés avant la détection systématique
+     * peuvent porter un type client arbitraire (text/html, valeur mal formée)
+     */
+    public static String servedContentType(String contentType) {
+        return contentType != null && SERVED_CONTENT_TYPES.contains(contentType) ? contentType : DEFAULT_CONTENT_TYPE;
+    }
+
+    public boolean exists(String ref) {
+        return ref != null && Files.exists(resolve(ref));
+    }
+
+    /**
+     * Chemin du document : deux niveaux de répertoires pour éviter les dossiers trop volumineux
+     */
+    Path resolve(String ref) {
+        if (ref == null || !ref.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Référence de document invalide");
+        }
+        return root.resolve(ref.substring(0, 2)).resolve(ref.substring(2, 4)).resolve(ref);
+    }
+
+    /**
+     * Détecte les formats usuels à partir des premiers octets
+     */
+    static String detectContentType(byte[] head) {
+        if (startsWith(head, 0x25, 0x50, 0x44, 0x46)) {
+            return "application/pdf";
+        }
+        if (startsWith(head, 0x89, 0x50, 0x4E, 0x47)) {
+            return "image/png";
+        }
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        return DEFAULT_CONTENT_TYPE;
+    }
+
+    private static boolean startsWith(byte[] content, int... signature) {
+        if (content.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((content[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warning("Fichier temporaire non supprimé: " + path);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.EligibilityRow;
+import com.example.demo.model.dto.EligibilityVerdict;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.enums.EligibilityReason;
+import com.example.demo.repository.AdherentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Copie en mémoire de l'éligibilité de chaque adhérent, pour les contrôles d'accès.
+ *
+ * Un long par adhérent, indexé par son identifiant : motif hors dates (8 bits), puis jours
+ * de début et de fin de validité (28 bits chacun, jour epoch + 1). La fin est la plus proche
+ * de la fin d'adhésion et de l'expiration du certificat ; un bit du motif indique laquelle
+ * des deux la borne, pour rendre le bon motif une fois la date passée. Une lecture est un
+ * accès au tableau, sans verrou ni base ; les écritures sont appliquées après commit et
+ * une reconstruction complète corrige périodiquement toute dérive.
+ *
+ * Les modifications faites par les autres instances sont relues en base à chaque passage du
+ * planificateur (adhérents dont updated_at a changé) : leur retard est borné par ce délai,
+ * et par la reconstruction périodique pour ce qui ne touche pas la ligne de l'adhérent
+ * (dates d'une formule du catalogue).
+ */
+@Service
+public class EligibilitySnapshot {
+
+    private static final Logger log = Logger.getLogger(EligibilitySnapshot.class.getName());
+    private static final EligibilityReason[] REASONS = EligibilityReason.values();
+    private static final EligibilityVerdict[] VERDICTS = Arrays.stream(REASONS)
+        .map(EligibilityVerdict::of).toArray(EligibilityVerdict[]::new);
+
+    private static final int REASON_BITS = 8;
+    private static final int DAY_BITS = 28;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+    private static final long NO_START = 0;
+    private static final long NO_END = DAY_MASK;
+    private static final long REASON_MASK = 0x7F;
+    /** Fin de validité fixée par l'expiration du certificat plutôt que par l'adhésion */
+    private static final long CERTIFICATE_END_FLAG = 0x80;
+    /** Plafond absolu du tableau (128 Mo) ; au-delà, la lecture se fait en base */
+    static final int MAX_INDEX = 1 << 24;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Recouvrement des relectures : transactions validées après leur horodatage, décalage d'horloge */
+    private static final Duration CHANGE_OVERLAP = Duration.ofMinutes(1);
+
+    private final AdherentRepository adherentRepository;
+    private final Object writeLock = new Object();
+
+    private volatile AtomicLongArray entries = new AtomicLongArray(0);
+    private volatile boolean ready;
+    private volatile boolean rebuildRequested;
+    // Borne des identifiants servis depuis le tableau, déduite du plus grand identifiant connu
+    private volatile int indexLimit = INITIAL_CAPACITY;
+    // Instant à partir duquel les modifications restent à relire en base
+    private volatile LocalDateTime syncedFrom;
+    // Écritures reçues pendant une reconstruction, rejouées sur le nouveau tableau
+    private List<long[]> pendingWrites;
+
+    public EligibilitySnapshot(AdherentRepository adherentRepository) {
+        this.adherentRepository = adherentRepository;
+    }
+
+    // ===== LECTURE =====
+
+    public EligibilityVerdict lookup(long adherentId) {
+        if (!ready || adherentId < 0 || adherentId >= indexLimit) {
+            return lookupInDatabase(adherentId);
+        }
+        AtomicLongArray current = entries;
+        long packed = adherentId < current.length() ? current.get((int) adherentId) : 0;
+        return VERDICTS[decode(packed, encodeDay(LocalDate.now())).ordinal()];
+    }
+
+    private EligibilityVerdict lookupInDatabase(long adherentId) {
+        List<EligibilityRow> rows = adherentRepository.findEligibilityRows(List.of(adherentId));
+        EligibilityReason reason = rows.isEmpty() ? EligibilityReason.NOT_FOUND : rows.get(0).evaluate(LocalDate.now());
+        return VERDICTS[reason.ordinal()];
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== ÉCRITURES =====
+
+    /**
+     * Enregistre l'état d'un adhérent modifié, une fois la transaction appelante validée
+     */
+    public void update(Adherent adherent) {
+        if (adherent.getId() == null) {
+            return;
+        }
+        long id = adherent.getId();
+        long packed = encode(EligibilityRow.of(adherent));
+        TransactionHooks.afterCommit(() -> write(id, packed));
+    }
+
+    /**
+     * Relit un adhérent en base (à appeler hors transaction, après une mise à jour en masse)
+     */
+    public void reload(Long adherentId) {
+        List<EligibilityRow> rows = adherentRepository.findEligibilityRows(List.of(adherentId));
+        write(adherentId, rows.isEmpty() ? 0 : encode(rows.get(0)));
+    }
+
+    /**
+     * Demande une reconstruction complète au prochain passage du planificateur
+     */
+    public void requestRebuild() {
+        TransactionHooks.afterCommit(() -> rebuildRequested = true);
+    }
+
+    /**
+     * Relit les adhérents modifiés depuis la dernière synchronisation, par cette instance ou une autre
+     * @return nombre d'adhérents relus
+     */
+    public int pollChanges() {
+        LocalDateTime from = syncedFrom;
+        if (!ready || from == null) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<EligibilityRow> rows = adherentRepository.findEligibilityRowsUpdatedSince(from.minus(CHANGE_OVERLAP));
+        for (EligibilityRow row : rows) {
+            write(row.id(), encode(row));
+        }
+        syncedFrom = now;
+        return rows.size();
+    }
+
+    public boolean consumeRebuildRequest() {
+        if (!rebuildRequested) {
+            return false;
+        }
+        rebuildRequested = false;
+        return true;
+    }
+
+    private void write(long id, long packed) {
+        if (id < 0 || id >= MAX_INDEX) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (pendingWrites != null) {
+                pendingWrites.add(new long[] {id, packed});
+            }
+            // Hors du tableau servi, la lecture passe par la base : inutile de l'agrandir
+            if (!ready || id >= indexLimit) {
+                return;
+            }
+            AtomicLongArray current = entries;
+            if (id >= current.length()) {
+                if (packed == 0) {
+                    return;
+                }
+                AtomicLongArray grown = new AtomicLongArray(capacityFor(id));
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                current = grown;
+                entries = grown;
+            }
+            current.set((int) id, packed);
+        }
+    }
+
+    // ===== RECONSTRUCTION =====
+
+    /**
+     * Relit tous les adhérents en flux et remplace le tableau d'un bloc
+     * @return nombre d'adhérents chargés
+     */
+    @Transactional(readOnly = true)
+    public int rebuild() {
+        synchronized (writeLock) {
+            pendingWrites = new ArrayList<>();
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long[] table = new long[INITIAL_CAPACITY];
+        long maxId = 0;
+        int loaded = 0;
+        try (Stream<EligibilityRow> rows = adherentRepository.streamEligibilityRows()) {
+            Iterator<EligibilityRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                EligibilityRow row = iterator.next();
+                long id = row.id();
+                if (id < 0 || id >= MAX_INDEX) {
+                    continue;
+                }
+                if (id >= table.length) {
+                    table = Arrays.copyOf(table, capacityFor(id));
+                }
+                table[(int) id] = encode(row);
+                maxId = Math.max(maxId, id);
+                loaded++;
+            }
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingWrites = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            for (long[] write : pendingWrites) {
+                long id = write[0];
+                if (id >= table.length) {
+                    table = Arrays.copyOf(table, capacityFor(id));
+                }
+                table[(int) id] = write[1];
+                maxId = Math.max(maxId, id);
+            }
+            pendingWrites = null;
+            entries = new AtomicLongArray(table);
+            indexLimit = limitFor(maxId);
+            syncedFrom = startedAt;
+            ready = true;
+        }
+        log.info("Instantané d'éligibilité reconstruit: " + loaded + " adhérents");
+        return loaded;
+    }
+
+    private static int capacityFor(long id) {
+        long capacity = Math.max(INITIAL_CAPACITY, Long.highestOneBit(id) << 1);
+        return (int) Math.min(capacity, MAX_INDEX);
+    }
+
+    /**
+     * Marge pour les adhérents créés d'ici la prochaine reconstruction (2 à 4 fois le plus
+     * grand identifiant) : un identifiant aberrant ne fait jamais allouer le plafond absolu
+     */
+    static int limitFor(long maxId) {
+        long limit = Math.max(INITIAL_CAPACITY, Long.highestOneBit(maxId) << 2);
+        return (int) Math.min(limit, MAX_INDEX);
+    }
+
+    // ===== ENCODAGE =====
+
+    static long encode(EligibilityRow row) {
+        long reason = row.evaluateIgnoringDates().ordinal() + 1;
+        long start = row.effectiveStart() == null ? NO_START : encodeDay(row.effectiveStart());
+        long end = row.effectiveEnd() == null ? NO_END : encodeDay(row.effectiveEnd());
+        LocalDate certificateEnd = row.medicalCertificateExpiresOn();
+        if (certificateEnd != null && encodeDay(certificateEnd) <= end) {
+            end = encodeDay(certificateEnd);
+            reason |= CERTIFICATE_END_FLAG;
+        }
+        return reason | (start << REASON_BITS) | (end << (REASON_BITS + DAY_BITS));
+    }
+
+    static EligibilityReason decode(long packed, long today) {
+        if (packed == 0) {
+            return EligibilityReason.NOT_FOUND;
+        }
+        EligibilityReason reason = REASONS[(int) (packed & REASON_MASK) - 1];
+        if (reason != EligibilityReason.ELIGIBLE) {
+            return reason;
+        }
+        long start = (packed >>> REASON_BITS) & DAY_MASK;
+        long end = (packed >>> (REASON_BITS + DAY_BITS)) & DAY_MASK;
+        if (today > end && (packed & CERTIFICATE_END_FLAG) != 0) {
+            return EligibilityReason.MEDICAL_CERTIFICATE_EXPIRED;
+        }
+        return start <= today && today <= end ? EligibilityReason.ELIGIBLE : EligibilityReason.SUBSCRIPTION_NOT_ACTIVE;
+    }
+
+    // Jour epoch décalé de 1 (0 = sans date de début), borné à l'intervalle codable
+    static long encodeDay(LocalDate day) {
+        return Math.max(1, Math.min(DAY_MASK - 1, day.toEpochDay() + 1));
+    }
+}
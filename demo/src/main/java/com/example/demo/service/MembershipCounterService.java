@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import com.example.demo.model.entity.MembershipCounter;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.MembershipCounterRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Compteurs d'adhérents par statut, maintenus à chaque transition
+ * (table membership_counters + copie en mémoire pour des lectures en O(1)).
+ *
+ * La table fait foi : chaque instance n'applique en mémoire que ses propres transitions,
+ * la copie est donc relue depuis la table dès qu'elle a plus de reports.counters.cache-ttl,
+ * ce qui y intègre les transitions des autres instances.
+ */
+@Service
+public class MembershipCounterService {
+    
+    private static final Logger log = Logger.getLogger(MembershipCounterService.class.getName());
+    private static final AdherentStatus[] STATUSES = AdherentStatus.values();
+    
+    private final MembershipCounterRepository counterRepository;
+    private final AdherentRepository adherentRepository;
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+    private final long cacheTtlNanos;
+    private volatile long loadedAt;
+    private volatile boolean loaded;
+    
+    public MembershipCounterService(MembershipCounterRepository counterRepository,
+                                    AdherentRepository adherentRepository,
+                                    @Value("${reports.counters.cache-ttl:5s}") Duration cacheTtl) {
+        this.counterRepository = counterRepository;
+        this.adherentRepository = adherentRepository;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+    }
+    
+    // ===== TRANSITIONS =====
+    
+    /**
+     * Enregistre l'arrivée d'adhérents dans un statut (création)
+     */
+    @Transactional
+    public void recordCreated(AdherentStatus status, long count) {
+        if (status == null || count == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        counterRepository.addToCount(status, count, now);
+        TransactionHooks.afterCommit(() -> counts.addAndGet(status.ordinal(), count));
+    }
+    
+    /**
+     * Enregistre le passage d'adhérents d'un statut à un autre, dans la transaction appelante
+     */
+    @Transactional
+    public void recordTransition(AdherentStatus from, AdherentStatus to, long count) {
+        if (from == to || to == null || count == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (from != null) {
+            counterRepository.addToCount(from, -count, now);
+        }
+        counterRepository.addToCount(to, count, now);
+        TransactionHooks.afterCommit(() -> {
+            if (from != null) {
+                counts.addAndGet(from.ordinal(), -count);
+            }
+            counts.addAndGet(to.ordinal(), count);
+        });
+    }
+    
+    public void recordTransition(AdherentStatus from, AdherentStatus to) {
+        recordTransition(from, to, 1);
+    }
+    
+    // ===== LECTURE =====
+    
+    public long getCount(AdherentStatus status) {
+        refreshIfStale();
+        return counts.get(status.ordinal());
+    }
+    
+    public long getTotal() {
+        refreshIfStale();
+        long total = 0;
+        for (int i = 0; i < STATUSES.length; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+    
+    public Map<AdherentStatus, Long> getCounts() {
+        refreshIfStale();
+        Map<AdherentStatus, Long> result = new EnumMap<>(AdherentStatus.class);
+        for (AdherentStatus status : STATUSES) {
+            result.put(status, counts.get(status.ordinal()));
+        }
+        return result;
+    }
+    
+    // Relecture de la table (quatre lignes par clé primaire) ; en cas d'erreur, la copie locale est servie
+    private void refreshIfStale() {
+        long now = System.nanoTime();
+        if (loaded && now - loadedAt < cacheTtlNanos) {
+            return;
+        }
+        try {
+            for (MembershipCounter counter : counterRepository.findAll()) {
+                counts.set(counter.getStatus().ordinal(), counter.getMemberCount());
+            }
+            loadedAt = now;
+            loaded = true;
+        } catch (RuntimeException e) {
+            log.warning("Lecture des compteurs d'adhésion impossible, copie locale servie: " + e.getMessage());
+        }
+    }
+    
+    // ===== RÉCONCILIATION =====
+    
+    /**
+     * Recalcule les compteurs depuis la table adherents (un seul GROUP BY) et corrige la dérive.
+     * Les lignes de compteurs sont verrouillées avant le décompte : un incrément validé entre
+     * le décompte et l'écriture serait sinon écrasé par la valeur absolue.
+     * @return les écarts corrigés par statut
+     */
+    @Transactional
+    public Map<AdherentStatus, Long> reconcile() {
+        Map<AdherentStatus, MembershipCounter> locked = new EnumMap<>(AdherentStatus.class);
+        for (MembershipCounter counter : counterRepository.lockAll()) {
+            locked.put(counter.getStatus(), counter);
+        }
+        
+        long[] actual = new long[STATUSES.length];
+        for (Object[] row : adherentRepository.countGroupedByStatus()) {
+            if (row[0] != null) {
+                actual[((AdherentStatus) row[0]).ordinal()] = ((Number) row[1]).longValue();
+            }
+        }
+        
+        Map<AdherentStatus, Long> drift = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (AdherentStatus status : STATUSES) {
+            long value = actual[status.ordinal()];
+            MembershipCounter counter = locked.get(status);
+            if (counter == null) {
+                counterRepository.save(new MembershipCounter(status, value));
+            } else {
+                if (counter.getMemberCount() != value) {
+                    drift.put(status, value - counter.getMemberCount());
+                }
+                counterRepository.resetCount(status, value, now);
+            }
+        }
+        TransactionHooks.afterCommit(() -> {
+            for (AdherentStatus status : STATUSES) {
+                counts.set(status.ordinal(), actual[status.ordinal()]);
+            }
+        });
+        
+        if (!drift.isEmpty()) {
+            log.warning("Compteurs d'adhésion corrigés: " + drift);
+        }
+        return drift;
+    }
+}
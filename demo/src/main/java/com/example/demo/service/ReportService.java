@@ -1,8 +1,9 @@
 package com.example.demo.service;
 
-import com.example.demo.model.entity.Adherent;
-import com.example.demo.model.entity.Subscription;
+import com.example.demo.model.dto.CertificateExpiry;
+import com.example.demo.model.dto.SubscriptionRevenue;
 import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.SubscriptionType;
 import com.example.demo.repository.AdherentRepository;
 import com.example.demo.repository.SubscriptionRepository;
 import org.springframework.stereotype.Service;
@@ -16,12 +17,20 @@ import java.util.*;
 @Service
 public class ReportService {
     
+    // Bornes utilisées quand un seul côté de la période est fourni
+    private static final LocalDate MIN_REPORT_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_REPORT_DATE = LocalDate.of(9999, 12, 31);
+    private static final int MAX_CERTIFICATE_DAYS = 366;
+    
     private final AdherentRepository adherentRepository;
     private final SubscriptionRepository subscriptionRepository;
+    private final MembershipCounterService membershipCounterService;
     
-    public ReportService(AdherentRepository adherentRepository, SubscriptionRepository subscriptionRepository) {
+    public ReportService(AdherentRepository adherentRepository, SubscriptionRepository subscriptionRepository,
+                         MembershipCounterService membershipCounterService) {
         this.adherentRepository = adherentRepository;
         this.subscriptionRepository = subscriptionRepository;
+        this.membershipCounterService = membershipCounterService;
     }
     
     // ===== RAPPORTS STATISTIQUES =====
@@ -29,11 +38,11 @@ public class ReportService {
     public Map<String, Object> getGeneralStatistics() {
         Map<String, Object> stats = new LinkedHashMap<>();
         
-        // Statistiques des adhérents
-        long totalAdherents = adherentRepository.count();
-        long activeAdherents = adherentRepository.countByStatus(AdherentStatus.ACTIVE);
-        long suspendedAdherents = adherentRepository.countByStatus(AdherentStatus.SUSPENDED);
-        long expiredAdherents = adherentRepository.countByStatus(AdherentStatus.EXPIRED);
+        // Statistiques des adhérents (compteurs matérialisés, aucune requête)
+        long totalAdherents = membershipCounterService.getTotal();
+        long activeAdherents = membershipCounterService.getCount(AdherentStatus.ACTIVE);
+        long suspendedAdherents = membershipCounterService.getCount(AdherentStatus.SUSPENDED);
+        long expiredAdherents = membershipCounterService.getCount(AdherentStatus.EXPIRED);
         
         stats.put("totalAdherents", totalAdherents);
         stats.put("activeAdherents", activeAdherents);
@@ -44,28 +53,55 @@ public class ReportService {
     }
     
     public Map<String, Object> getSubscriptionStatistics() {
+        return getSubscriptionStatistics(null, null);
+    }
+    
+    public Map<String, Object> getSubscriptionStatistics(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
         Map<String, Object> stats = new LinkedHashMap<>();
-        List<Subscription> subscriptions = subscriptionRepository.findAll();
+        
+        // Une seule requête groupée par (type, prix) au lieu d'un COUNT par abonnement
+        List<SubscriptionRevenue> rows = (from == null && to == null)
+                ? subscriptionRepository.findRevenueByTypeAndPrice()
+                : subscriptionRepository.findRevenueByTypeAndPrice(
+                        from != null ? from : MIN_REPORT_DATE,
+                        to != null ? to : MAX_REPORT_DATE);
+        
+        // Un même type peut exister à plusieurs prix : la clé inclut alors le prix
+        Map<SubscriptionType, Long> rowsPerType = new EnumMap<>(SubscriptionType.class);
+        for (SubscriptionRevenue row : rows) {
+            rowsPerType.merge(row.type(), 1L, Long::sum);
+        }
         
         long totalRevenue = 0;
         Map<String, Object> subscriptionDetails = new LinkedHashMap<>();
         
-        for (Subscription sub : subscriptions) {
+        for (SubscriptionRevenue row : rows) {
             Map<String, Object> subDetail = new LinkedHashMap<>();
-            long count = adherentRepository.countByCurrentSubscription(sub);
-            double revenue = sub.getPrice() * count;
+            double revenue = row.revenue() != null ? row.revenue() : 0.0;
             totalRevenue += (long) revenue;
             
-            subDetail.put("type", sub.getType().toString());
-            subDetail.put("price", sub.getPrice());
-            subDetail.put("subscriberCount", count);
+            subDetail.put("type", row.type().toString());
+            subDetail.put("price", row.price());
+            subDetail.put("subscriberCount", row.subscriberCount());
             subDetail.put("revenue", revenue);
             
-            subscriptionDetails.put(sub.getType().toString(), subDetail);
+            String key = rowsPerType.get(row.type()) > 1
+                    ? row.type() + " (" + row.price() + "€)"
+                    : row.type().toString();
+            subscriptionDetails.put(key, subDetail);
         }
         
         stats.put("totalRevenue", totalRevenue);
         stats.put("subscriptionDetails", subscriptionDetails);
+        if (from != null) {
+            stats.put("from", from);
+        }
+        if (to != null) {
+            stats.put("to", to);
+        }
         
         return stats;
     }
@@ -73,18 +109,13 @@ public class ReportService {
     public Map<String, Object> getMonthlyReport(int month, int year) {
         Map<String, Object> report = new LinkedHashMap<>();
         LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0);
-        LocalDateTime endOfMonth = LocalDateTime.of(year, month, 1, 0, 0).plusMonths(1).minusSeconds(1);
+        LocalDateTime startOfNextMonth = startOfMonth.plusMonths(1);
         
-        // Adhérents créés ce mois
-        long newAdherents = adherentRepository.findAll().stream()
-            .filter(a -> a.getCreatedAt().isAfter(startOfMonth) && a.getCreatedAt().isBefore(endOfMonth))
-            .count();
+        // Adhérents créés ce mois (COUNT sur l'index created_at)
+        long newAdherents = adherentRepository.countCreatedBetween(startOfMonth, startOfNextMonth);
         
-        // Statistiques par statut
-        List<Adherent> allAdherents = adherentRepository.findAll();
-        long activeThisMonth = allAdherents.stream()
-            .filter(a -> a.getStatus() == AdherentStatus.ACTIVE)
-            .count();
+        // Adhérents actifs (compteur matérialisé)
+        long activeThisMonth = membershipCounterService.getCount(AdherentStatus.ACTIVE);
         
         report.put("month", month);
         report.put("year", year);
@@ -95,15 +126,62 @@ public class ReportService {
         return report;
     }
     
+    public Map<String, Object> getYearlyReport(int year) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        LocalDateTime startOfYear = LocalDateTime.of(year, 1, 1, 0, 0);
+        
+        // Une seule requête groupée pour les 12 mois
+        long[] newPerMonth = new long[12];
+        List<Map<String, Long>> statusPerMonth = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            statusPerMonth.add(new LinkedHashMap<>());
+        }
+        for (Object[] row : adherentRepository.countCreatedPerMonthAndStatus(startOfYear, startOfYear.plusYears(1))) {
+            int monthIndex = ((Number) row[0]).intValue() - 1;
+            long count = ((Number) row[2]).longValue();
+            newPerMonth[monthIndex] += count;
+            statusPerMonth.get(monthIndex).put(row[1].toString(), count);
+        }
+        
+        List<Map<String, Object>> months = new ArrayList<>();
+        long totalNew = 0;
+        for (int i = 0; i < 12; i++) {
+            Map<String, Object> monthReport = new LinkedHashMap<>();
+            monthReport.put("month", i + 1);
+            monthReport.put("newAdherents", newPerMonth[i]);
+            monthReport.put("byStatus", statusPerMonth.get(i));
+            months.add(monthReport);
+            totalNew += newPerMonth[i];
+        }
+        
+        report.put("year", year);
+        report.put("newAdherents", totalNew);
+        report.put("activeMembers", membershipCounterService.getCount(AdherentStatus.ACTIVE));
+        report.put("months", months);
+        report.put("reportDate", LocalDate.now());
+        
+        return report;
+    }
+    
     public Map<String, Object> getAdherentsByStatusReport() {
         Map<String, Object> report = new LinkedHashMap<>();
         
-        for (AdherentStatus status : AdherentStatus.values()) {
-            long count = adherentRepository.countByStatus(status);
-            report.put(status.toString(), count);
+        for (Map.Entry<AdherentStatus, Long> entry : membershipCounterService.getCounts().entrySet()) {
+            report.put(entry.getKey().toString(), entry.getValue());
         }
         
         report.put("generatedAt", LocalDateTime.now());
         return report;
     }
+    
+    /**
+     * Certificats médicaux des adhérents actifs expirant d'ici days jours (aujourd'hui inclus)
+     */
+    public List<CertificateExpiry> getCertificatesExpiring(int days) {
+        if (days < 0 || days > MAX_CERTIFICATE_DAYS) {
+            throw new IllegalArgumentException("Le nombre de jours doit être compris entre 0 et " + MAX_CERTIFICATE_DAYS);
+        }
+        LocalDate today = LocalDate.now();
+        return adherentRepository.findCertificatesExpiringBetween(today, today.plusDays(days));
+    }
 }
@@ -0,0 +1,182 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.CatalogVersion;
+import com.example.demo.model.entity.Subscription;
+import com.example.demo.model.enums.SubscriptionType;
+import com.example.demo.repository.SubscriptionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalogue public des abonnements gardé en mémoire sous forme de JSON déjà sérialisé,
+ * avec un ETag fort par réponse. Invalidé après validation de toute modification du catalogue.
+ *
+ * L'invalidation ne touche que l'instance qui a fait la modification : les autres comparent
+ * l'empreinte du catalogue en base à celle de leur copie au plus toutes les
+ * subscriptions.catalog.version-check, et reconstruisent leur copie si elle a changé.
+ */
+@Component
+public class SubscriptionCatalogCache {
+    
+    private static final int MAX_CACHED_PAGES = 64;
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private final SubscriptionRepository subscriptionRepository;
+    private final ObjectMapper objectMapper;
+    private final long versionCheckNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong versionCheckedAt = new AtomicLong(System.nanoTime());
+    private volatile Snapshot snapshot;
+    
+    /**
+     * Corps JSON prêt à envoyer et son ETag
+     */
+    public record CatalogEntry(byte[] body, String etag) {}
+    
+    // Le JSON dépend de la date (isActive, séances restantes) : l'instantané est daté
+    private record Snapshot(long generation,
+                            CatalogVersion version,
+                            LocalDate date,
+                            List<Subscription> subscriptions,
+                            CatalogEntry all,
+                            Map<SubscriptionType, CatalogEntry> byType,
+                            Map<Long, CatalogEntry> byId,
+                            Map<String, CatalogEntry> pages) {}
+    
+    public SubscriptionCatalogCache(SubscriptionRepository subscriptionRepository, ObjectMapper objectMapper,
+                                    @Value("${subscriptions.catalog.version-check:5s}") Duration versionCheck) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.objectMapper = objectMapper;
+        this.versionCheckNanos = versionCheck.toNanos();
+    }
+    
+    // ===== LECTURE =====
+    
+    public CatalogEntry getAll() {
+        return current().all();
+    }
+    
+    public Optional<CatalogEntry> getByType(SubscriptionType type) {
+        return Optional.ofNullable(current().byType().get(type));
+    }
+    
+    public Optional<CatalogEntry> getById(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+    
+    public CatalogEntry getPage(int page, int size) {
+        Snapshot current = current();
+        String key = page + ":" + size;
+        CatalogEntry cached = current.pages().get(key);
+        if (cached != null) {
+            return cached;
+        }
+        PageRequest pageRequest = PageRequest.of(page, size);
+        List<Subscription> all = current.subscriptions();
+        int from = (int) Math.min(pageRequest.getOffset(), all.size());
+        int to = Math.min(from + size, all.size());
+        CatalogEntry entry = serialize(new PageImpl<>(all.subList(from, to), pageRequest, all.size()));
+        if (size <= MAX_PAGE_SIZE && current.pages().size() < MAX_CACHED_PAGES) {
+            current.pages().put(key, entry);
+        }
+        return entry;
+    }
+    
+    // ===== INVALIDATION =====
+    
+    /**
+     * À appeler dans la transaction qui modifie le catalogue : l'invalidation a lieu après validation
+     */
+    public void invalidate() {
+        TransactionHooks.afterCompletion(this::evict);
+    }
+    
+    private void evict() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+    
+    /**
+     * Compare l'empreinte en base à celle de la copie, une seule fois par intervalle pour
+     * l'ensemble des requêtes : une modification faite par une autre instance invalide la copie
+     */
+    private void checkVersion(Snapshot current) {
+        long checkedAt = versionCheckedAt.get();
+        long now = System.nanoTime();
+        if (now - checkedAt < versionCheckNanos || !versionCheckedAt.compareAndSet(checkedAt, now)) {
+            return;
+        }
+        if (!current.version().equals(subscriptionRepository.findCatalogVersion())) {
+            evict();
+        }
+    }
+    
+    // ===== CONSTRUCTION =====
+    
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            checkVersion(current);
+        }
+        current = snapshot;
+        LocalDate today = LocalDate.now();
+        if (current != null && current.generation() == generation.get() && current.date().equals(today)) {
+            return current;
+        }
+        return rebuild(today);
+    }
+    
+    private synchronized Snapshot rebuild(LocalDate today) {
+        Snapshot current = snapshot;
+        long gen = generation.get();
+        if (current != null && current.generation() == gen && current.date().equals(today)) {
+            return current;
+        }
+        // Empreinte lue avant le catalogue : une modification entre les deux sera vue au contrôle suivant
+        CatalogVersion version = subscriptionRepository.findCatalogVersion();
+        List<Subscription> subscriptions = List.copyOf(subscriptionRepository.findAll(Sort.by("id")));
+        Map<SubscriptionType, CatalogEntry> byType = new EnumMap<>(SubscriptionType.class);
+        Map<Long, CatalogEntry> byId = new HashMap<>();
+        for (Subscription subscription : subscriptions) {
+            CatalogEntry entry = serialize(subscription);
+            byType.putIfAbsent(subscription.getType(), entry);
+            byId.put(subscription.getId(), entry);
+        }
+        Snapshot built = new Snapshot(gen, version, today, subscriptions, serialize(subscriptions),
+            byType, byId, new ConcurrentHashMap<>());
+        // Une invalidation pendant la lecture rend cet instantané obsolète : il n'est pas publié
+        if (generation.get() == gen) {
+            snapshot = built;
+        }
+        return built;
+    }
+    
+    private CatalogEntry serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return new CatalogEntry(body, "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation du catalogue impossible", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -22,9 +22,15 @@ public class SubscriptionService {
     private static final Logger log = Logger.getLogger(SubscriptionService.class.getName());
     
     private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionCatalogCache catalogCache;
+    private final EligibilitySnapshot eligibilitySnapshot;
     
-    public SubscriptionService(SubscriptionRepository subscriptionRepository) {
+    public SubscriptionService(SubscriptionRepository subscriptionRepository,
+                               SubscriptionCatalogCache catalogCache,
+                               EligibilitySnapshot eligibilitySnapshot) {
         this.subscriptionRepository = subscriptionRepository;
+        this.catalogCache = catalogCache;
+        this.eligibilitySnapshot = eligibilitySnapshot;
     }
     
     // ===== CRÉATION =====
@@ -39,7 +45,6 @@ public class SubscriptionService {
         // Initialiser les valeurs par défaut
         subscription.setCreatedAt(LocalDateTime.now());
         subscription.setUpdatedAt(LocalDateTime.now());
-        subscription.setWeeklySessionsUsed(0);
         
         // Si weeklySessions n'est pas défini, utiliser la valeur du type
         if (subscription.getWeeklySessions() == null) {
@@ -48,6 +53,7 @@ public class SubscriptionService {
 
         applyDurationAndDates(subscription, true);
         
+        catalogCache.invalidate();
         return subscriptionRepository.save(subscription);
     }
     
@@ -109,9 +115,12 @@ public class SubscriptionService {
 
         if (shouldRecalculateDates) {
             applyDurationAndDates(subscription, false);
+            // Les adhérents sans adhésion propre dépendent encore des dates de la formule
+            eligibilitySnapshot.requestRebuild();
         }
         
         subscription.setUpdatedAt(LocalDateTime.now());
+        catalogCache.invalidate();
         return subscriptionRepository.save(subscription);
     }
 
@@ -144,6 +153,7 @@ public class SubscriptionService {
         Subscription subscription = getSubscriptionById(id);
         subscription.setPrice(price);
         subscription.setUpdatedAt(LocalDateTime.now());
+        catalogCache.invalidate();
         return subscriptionRepository.save(subscription);
     }
     
@@ -154,5 +164,7 @@ public class SubscriptionService {
             throw new RuntimeException("Abonnement non trouvé");
         }
         subscriptionRepository.deleteById(id);
+        catalogCache.invalidate();
+        eligibilitySnapshot.requestRebuild();
     }
 }
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.model.entity.TrainingSession;
+import com.example.demo.repository.TrainingSessionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Service métier pour le planning des séances
+ */
+@Service
+@Transactional
+public class TrainingSessionService {
+    
+    private static final Logger log = Logger.getLogger(TrainingSessionService.class.getName());
+    private static final int DEFAULT_WINDOW_DAYS = 14;
+    
+    private final TrainingSessionRepository trainingSessionRepository;
+    
+    public TrainingSessionService(TrainingSessionRepository trainingSessionRepository) {
+        this.trainingSessionRepository = trainingSessionRepository;
+    }
+    
+    public TrainingSession createSession(TrainingSession session) {
+        log.info("Création séance: " + session.getTitle() + " le " + session.getStartsAt());
+        if (session.getStartsAt() == null || !session.getStartsAt().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("La séance doit débuter dans le futur");
+        }
+        if (session.getCapacity() <= 0) {
+            throw new IllegalArgumentException("La capacité doit être positive");
+        }
+        session.setId(null);
+        session.setBookedCount(0);
+        return trainingSessionRepository.save(session);
+    }
+    
+    @Transactional(readOnly = true)
+    public TrainingSession getSessionById(Long id) {
+        return trainingSessionRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Séance non trouvée avec l'ID: " + id));
+    }
+    
+    /**
+     * Séances de la période, par défaut les deux semaines à venir
+     */
+    @Transactional(readOnly = true)
+    public List<TrainingSession> getSessions(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(DEFAULT_WINDOW_DAYS);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La date de fin doit suivre la date de début");
+        }
+        return trainingSessionRepository.findByStartsAtBetweenOrderByStartsAt(start, end);
+    }
+}
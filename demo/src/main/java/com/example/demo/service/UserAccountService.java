@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.BulkResult;
+import com.example.demo.model.dto.UserAccountRow;
+import com.example.demo.model.dto.UserBulkRequest;
+import com.example.demo.model.enums.BulkOutcome;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.TokenVersionCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Opérations groupées sur les comptes utilisateurs (désactivation, changement de rôle).
+ * Chaque opération est une instruction conditionnelle qui incrémente aussi la version des tokens :
+ * les JWT déjà émis pour ces comptes sont refusés dès l'invalidation du cache.
+ */
+@Service
+@Transactional
+public class UserAccountService {
+    
+    private static final Logger log = Logger.getLogger(UserAccountService.class.getName());
+    private static final int MAX_BULK_IDS = 1000;
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+    
+    private final UserRepository userRepository;
+    private final TokenVersionCache tokenVersionCache;
+    
+    public UserAccountService(UserRepository userRepository, TokenVersionCache tokenVersionCache) {
+        this.userRepository = userRepository;
+        this.tokenVersionCache = tokenVersionCache;
+    }
+    
+    /**
+     * Désactive les comptes du lot ; le compte de l'appelant n'est jamais touché
+     */
+    public BulkResult disableUsers(UserBulkRequest request, String currentUsername) {
+        BulkResult result = apply(request, currentUsername, row -> !row.enabled(), userRepository::disableAll);
+        log.info("Désactivation groupée de " + result.updated() + " comptes par " + currentUsername
+            + (request.reason() == null ? "" : " (" + request.reason() + ")"));
+        return result;
+    }
+    
+    public BulkResult updateRoles(UserBulkRequest request, String currentUsername) {
+        String role = request.role() == null ? null : request.role().toUpperCase(Locale.ROOT);
+        if (!ROLES.contains(role)) {
+            throw new IllegalArgumentException("Rôle inconnu: " + request.role());
+        }
+        BulkResult result = apply(request, currentUsername, row -> role.equals(row.role()),
+            ids -> userRepository.updateRoleAll(ids, role));
+        log.info("Rôle " + role + " attribué à " + result.updated() + " comptes par " + currentUsername
+            + (request.reason() == null ? "" : " (" + request.reason() + ")"));
+        return result;
+    }
+    
+    private BulkResult apply(UserBulkRequest request, String currentUsername,
+                             Predicate<UserAccountRow> alreadyDone, Function<List<Long>, Integer> update) {
+        if (request.userIds() == null || request.userIds().isEmpty()) {
+            throw new IllegalArgumentException("Liste d'utilisateurs obligatoire");
+        }
+        Set<Long> ids = new LinkedHashSet<>(request.userIds());
+        ids.remove(null);
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Au plus " + MAX_BULK_IDS + " utilisateurs par opération groupée");
+        }
+        Map<Long, BulkOutcome> outcomes = new LinkedHashMap<>();
+        ids.forEach(id -> outcomes.put(id, BulkOutcome.NOT_FOUND));
+        
+        List<Long> candidates = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (UserAccountRow row : ids.isEmpty() ? List.<UserAccountRow>of() : userRepository.findAccountRows(ids)) {
+            if (row.username().equals(currentUsername)) {
+                outcomes.put(row.id(), BulkOutcome.NOT_APPLICABLE);
+            } else if (alreadyDone.test(row)) {
+                outcomes.put(row.id(), BulkOutcome.UNCHANGED);
+            } else {
+                outcomes.put(row.id(), BulkOutcome.UPDATED);
+                candidates.add(row.id());
+                usernames.add(row.username());
+            }
+        }
+        int updated = candidates.isEmpty() ? 0 : update.apply(candidates);
+        // Après commit : une relecture concurrente ne doit pas remettre l'ancienne version en cache
+        TransactionHooks.afterCommit(() -> usernames.forEach(tokenVersionCache::invalidate));
+        return new BulkResult(outcomes.size(), updated, outcomes);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.batch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour le découpage en plages d'identifiants
+ */
+class AdherentIdRangePartitionerTest {
+    
+    @Test
+    void testSplitCoversRangeWithoutOverlap() {
+        Map<String, ExecutionContext> partitions = AdherentIdRangePartitioner.split(1L, 1000L, 4);
+        
+        List<ExecutionContext> ranges = List.copyOf(partitions.values());
+        assertEquals(4, ranges.size());
+        assertEquals(1L, ranges.get(0).getLong(AdherentIdRangePartitioner.MIN_ID));
+        assertEquals(1000L, ranges.get(3).getLong(AdherentIdRangePartitioner.MAX_ID));
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).getLong(AdherentIdRangePartitioner.MAX_ID) + 1,
+                ranges.get(i).getLong(AdherentIdRangePartitioner.MIN_ID));
+        }
+    }
+    
+    @Test
+    void testSplitSmallRangeYieldsFewerPartitions() {
+        Map<String, ExecutionContext> partitions = AdherentIdRangePartitioner.split(5L, 6L, 4);
+        
+        assertEquals(2, partitions.size());
+    }
+    
+    @Test
+    void testSplitWithoutRowsYieldsEmptyPartition() {
+        Map<String, ExecutionContext> partitions = AdherentIdRangePartitioner.split(null, null, 4);
+        
+        ExecutionContext only = partitions.values().iterator().next();
+        assertTrue(only.getLong(AdherentIdRangePartitioner.MIN_ID) > only.getLong(AdherentIdRangePartitioner.MAX_ID));
+    }
+}
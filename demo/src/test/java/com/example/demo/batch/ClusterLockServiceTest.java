@@ -0,0 +1,136 @@
+package com.example.demo.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des verrous de tâches planifiées sur une base H2 embarquée
+ */
+class ClusterLockServiceTest {
+    
+    private static final String LOCK = "processExpiredSubscriptionsJob";
+    
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE scheduler_locks (name VARCHAR(64) PRIMARY KEY, " +
+            "locked_until TIMESTAMP NOT NULL, locked_at TIMESTAMP NOT NULL, locked_by VARCHAR(255) NOT NULL)");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+    
+    private ClusterLockService instance(String holder) {
+        return new ClusterLockService(jdbcTemplate, holder);
+    }
+    
+    // Fait vieillir le bail en reculant ses dates, l'horloge de référence étant celle de la base
+    private void elapse(Duration elapsed) {
+        jdbcTemplate.update("UPDATE scheduler_locks SET locked_at = DATEADD('SECOND', -?, locked_at), " +
+            "locked_until = DATEADD('SECOND', -?, locked_until)", elapsed.toSeconds(), elapsed.toSeconds());
+    }
+    
+    private LocalDateTime lockedAt() {
+        return jdbcTemplate.queryForObject("SELECT locked_at FROM scheduler_locks WHERE name = ?", LocalDateTime.class, LOCK);
+    }
+    
+    @Test
+    void testOnlyOneInstanceAcquires() {
+        Optional<ClusterLockService.Lease> first = instance("a").tryAcquire(LOCK, Duration.ofHours(1));
+        elapse(Duration.ofMinutes(1));
+        Optional<ClusterLockService.Lease> second = instance("b").tryAcquire(LOCK, Duration.ofHours(1));
+        
+        assertTrue(first.isPresent());
+        assertTrue(second.isEmpty());
+        assertEquals("a", jdbcTemplate.queryForObject("SELECT locked_by FROM scheduler_locks WHERE name = ?", String.class, LOCK));
+    }
+    
+    @Test
+    void testLeaseTimesComeFromDatabase() {
+        ClusterLockService.Lease lease = instance("a").tryAcquire(LOCK, Duration.ofMinutes(90)).orElseThrow();
+        
+        assertEquals(lease.lockedAt(), lockedAt());
+        assertEquals(5400L, jdbcTemplate.queryForObject(
+            "SELECT DATEDIFF('SECOND', locked_at, locked_until) FROM scheduler_locks WHERE name = ?", Long.class, LOCK));
+    }
+    
+    @Test
+    void testInstanceTimeZoneDoesNotShortenLease() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertTrue(instance("a").tryAcquire(LOCK, Duration.ofHours(1)).isPresent());
+            
+            // Instance configurée 14 heures en avance : le bail de « a » doit rester valide
+            TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"));
+            assertTrue(instance("b").tryAcquire(LOCK, Duration.ofHours(1)).isEmpty());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+    
+    @Test
+    void testExpiredLeaseIsTakenOver() {
+        assertTrue(instance("a").tryAcquire(LOCK, Duration.ofMinutes(30)).isPresent());
+        elapse(Duration.ofMinutes(30));
+        
+        Optional<ClusterLockService.Lease> takeover = instance("b").tryAcquire(LOCK, Duration.ofMinutes(30));
+        
+        assertTrue(takeover.isPresent());
+        assertEquals("b", takeover.get().holder());
+    }
+    
+    @Test
+    void testReleaseKeepsLockAtLeastForMinimum() {
+        ClusterLockService.Lease lease = instance("a").tryAcquire(LOCK, Duration.ofHours(1)).orElseThrow();
+        instance("a").release(lease, Duration.ofMinutes(5));
+        
+        elapse(Duration.ofMinutes(4));
+        assertTrue(instance("b").tryAcquire(LOCK, Duration.ofHours(1)).isEmpty());
+        elapse(Duration.ofMinutes(1));
+        assertTrue(instance("b").tryAcquire(LOCK, Duration.ofHours(1)).isPresent());
+    }
+    
+    @Test
+    void testReleaseAfterMinimumFreesImmediately() {
+        assertTrue(instance("a").tryAcquire(LOCK, Duration.ofHours(1)).isPresent());
+        elapse(Duration.ofMinutes(10));
+        
+        // Bail tel qu'enregistré, pris il y a dix minutes
+        instance("a").release(new ClusterLockService.Lease(LOCK, "a", lockedAt()), Duration.ofMinutes(5));
+        
+        assertTrue(instance("b").tryAcquire(LOCK, Duration.ofHours(1)).isPresent());
+    }
+    
+    @Test
+    void testStaleReleaseDoesNotFreeNewHolder() {
+        ClusterLockService.Lease stale = instance("a").tryAcquire(LOCK, Duration.ofMinutes(10)).orElseThrow();
+        elapse(Duration.ofMinutes(10));
+        assertTrue(instance("b").tryAcquire(LOCK, Duration.ofHours(1)).isPresent());
+        
+        instance("a").release(stale, Duration.ZERO);
+        
+        assertTrue(instance("c").tryAcquire(LOCK, Duration.ofHours(1)).isEmpty());
+    }
+}
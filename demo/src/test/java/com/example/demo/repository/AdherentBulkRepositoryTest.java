@@ -0,0 +1,77 @@
+package com.example.demo.repository;
+
+import com.example.demo.PostgresTestConfiguration;
+import com.example.demo.model.entity.Adherent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la réservation d'identifiants par blocs, sur PostgreSQL (nextval, generate_series)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostgresTestConfiguration.class, AdherentBulkRepository.class})
+@Testcontainers(disabledWithoutDocker = true)
+class AdherentBulkRepositoryTest {
+    
+    @Autowired
+    private AdherentBulkRepository bulkRepository;
+    
+    @Autowired
+    private AdherentRepository adherentRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void testFreshSequenceNeverYieldsNonPositiveIds() {
+        jdbcTemplate.execute("CREATE SEQUENCE fresh_seq START WITH 1 INCREMENT BY 50");
+        
+        long[] ids = bulkRepository.allocateIds("fresh_seq", 120);
+        
+        assertEquals(120, ids.length);
+        assertTrue(Arrays.stream(ids).allMatch(id -> id >= 1));
+        assertEquals(120, Arrays.stream(ids).distinct().count());
+        // nextval = 1 ne donne que 1, puis les blocs ]1, 51], ]51, 101], ]101, 151]
+        assertEquals(1, ids[0]);
+        assertEquals(2, ids[1]);
+    }
+    
+    @Test
+    void testBulkIdsDoNotCollideWithHibernateIds() {
+        long[] bulkIds = bulkRepository.allocateIds("adherents_seq", 75);
+        Set<Long> allocated = Arrays.stream(bulkIds).boxed().collect(Collectors.toSet());
+        
+        for (int i = 0; i < 60; i++) {
+            Adherent adherent = new Adherent();
+            adherent.setFirstName("Jean");
+            adherent.setLastName("Dupont");
+            adherent.setEmail("hibernate-" + i + "@test.fr");
+            adherent.setPhoneNumber("0601020304");
+            adherent.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            adherent.setAddress("1 rue de la Paix");
+            Long id = adherentRepository.save(adherent).getId();
+            assertTrue(id >= 1);
+            assertFalse(allocated.contains(id), "Identifiant déjà réservé par le batch: " + id);
+        }
+    }
+    
+    @Test
+    void testSequenceWithOtherIncrementIsRejected() {
+        jdbcTemplate.execute("CREATE SEQUENCE unit_seq INCREMENT BY 1");
+        
+        assertThrows(IllegalStateException.class, () -> bulkRepository.allocateIds("unit_seq", 10));
+    }
+}
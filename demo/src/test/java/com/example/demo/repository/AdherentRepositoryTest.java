@@ -0,0 +1,125 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.dto.CertificateExpiry;
+import com.example.demo.model.dto.StoredDocument;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.enums.AdherentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des requêtes de l'adhérent sur une base H2 embarquée
+ */
+@DataJpaTest
+class AdherentRepositoryTest {
+    
+    @Autowired
+    private AdherentRepository adherentRepository;
+    
+    private Adherent adherent(String email) {
+        Adherent adherent = new Adherent();
+        adherent.setFirstName("Jean");
+        adherent.setLastName("Dupont");
+        adherent.setEmail(email);
+        adherent.setPhoneNumber("0601020304");
+        adherent.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        adherent.setAddress("1 rue de la Paix");
+        return adherentRepository.saveAndFlush(adherent);
+    }
+    
+    private Adherent withCertificate(String email, LocalDate expiresOn, AdherentStatus status) {
+        Adherent adherent = adherent(email);
+        adherent.attachMedicalCertificate(new StoredDocument("ab".repeat(32), 10L, "application/pdf"),
+            LocalDate.of(2026, 1, 1), expiresOn);
+        adherent.setStatus(status);
+        return adherentRepository.saveAndFlush(adherent);
+    }
+    
+    private Long version(Adherent adherent) {
+        return adherentRepository.findById(adherent.getId()).orElseThrow().getVersion();
+    }
+    
+    @Test
+    void testBulkStatusChangesBumpVersion() {
+        // L'ETag des adhérents est leur version : une modification groupée doit l'invalider
+        Adherent adherent = adherent("bulk@test.fr");
+        Long initial = version(adherent);
+        LocalDateTime now = LocalDateTime.now();
+        
+        assertEquals(1, adherentRepository.suspendAll(List.of(adherent.getId()), "Impayé", now));
+        Long suspended = version(adherent);
+        assertEquals(AdherentStatus.SUSPENDED, adherentRepository.findById(adherent.getId()).orElseThrow().getStatus());
+        assertEquals(initial + 1, suspended);
+        
+        assertEquals(1, adherentRepository.reactivateAll(List.of(adherent.getId()), now));
+        assertEquals(suspended + 1, version(adherent));
+        
+        assertEquals(1, adherentRepository.deactivateAll(List.of(adherent.getId()), now));
+        assertEquals(suspended + 2, version(adherent));
+    }
+    
+    @Test
+    void testUnchangedRowsKeepTheirVersion() {
+        Adherent adherent = adherent("unchanged@test.fr");
+        Long initial = version(adherent);
+        
+        assertEquals(0, adherentRepository.reactivateAll(List.of(adherent.getId()), LocalDateTime.now()));
+        assertEquals(initial, version(adherent));
+    }
+    
+    @Test
+    void testCertificateUpdateBumpsVersion() {
+        Adherent adherent = adherent("certificate@test.fr");
+        Long initial = version(adherent);
+        
+        adherentRepository.updateMedicalCertificate(adherent.getId(), "ref", 10L, "application/pdf",
+            null, null, LocalDateTime.now());
+        
+        assertEquals(initial + 1, version(adherent));
+    }
+    
+    // ===== CERTIFICATS MÉDICAUX =====
+    
+    @Test
+    void testCertificatesExpiringBetweenIncludesBothBounds() {
+        LocalDate from = LocalDate.of(2026, 6, 1);
+        LocalDate to = LocalDate.of(2026, 6, 30);
+        Adherent last = withCertificate("last@test.fr", to, AdherentStatus.ACTIVE);
+        Adherent first = withCertificate("first@test.fr", from, AdherentStatus.ACTIVE);
+        withCertificate("before@test.fr", from.minusDays(1), AdherentStatus.ACTIVE);
+        withCertificate("after@test.fr", to.plusDays(1), AdherentStatus.ACTIVE);
+        withCertificate("suspended@test.fr", from.plusDays(5), AdherentStatus.SUSPENDED);
+        withCertificate("open@test.fr", null, AdherentStatus.ACTIVE);
+        // Dates sans document déposé : ignorées
+        Adherent withoutDocument = adherent("nodocument@test.fr");
+        withoutDocument.setMedicalCertificateExpiresOn(from.plusDays(5));
+        adherentRepository.saveAndFlush(withoutDocument);
+        
+        List<CertificateExpiry> expiring = adherentRepository.findCertificatesExpiringBetween(from, to);
+        
+        assertEquals(List.of(first.getId(), last.getId()), expiring.stream().map(CertificateExpiry::adherentId).toList());
+        assertEquals(from, expiring.get(0).expiresOn());
+        assertEquals(LocalDate.of(2026, 1, 1), expiring.get(0).issuedOn());
+    }
+    
+    @Test
+    void testHasValidMedicalCertificate() {
+        LocalDate day = LocalDate.of(2026, 6, 15);
+        Adherent none = adherent("none@test.fr");
+        Adherent open = withCertificate("open@test.fr", null, AdherentStatus.ACTIVE);
+        Adherent lastDay = withCertificate("lastday@test.fr", day, AdherentStatus.ACTIVE);
+        Adherent expired = withCertificate("expired@test.fr", day.minusDays(1), AdherentStatus.ACTIVE);
+        
+        assertFalse(adherentRepository.hasValidMedicalCertificate(none.getId(), day));
+        assertTrue(adherentRepository.hasValidMedicalCertificate(open.getId(), day));
+        assertTrue(adherentRepository.hasValidMedicalCertificate(lastDay.getId(), day));
+        assertFalse(adherentRepository.hasValidMedicalCertificate(expired.getId(), day));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.repository;
+
+import com.example.demo.PostgresTestConfiguration;
+import com.example.demo.model.entity.MembershipWeekUsage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du décompte hebdomadaire sur PostgreSQL (l'upsert conditionnel n'existe pas sous H2)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MembershipWeekUsageRepositoryTest {
+    
+    private static final long MEMBERSHIP = 1L;
+    private static final int WEEK = 202642;
+    
+    @Autowired
+    private MembershipWeekUsageRepository repository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate tx;
+    
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+    
+    private int consume(int weeklyLimit) {
+        return tx.execute(status -> repository.consume(MEMBERSHIP, WEEK, weeklyLimit));
+    }
+    
+    private int used() {
+        return repository.findById(new MembershipWeekUsage.Key(MEMBERSHIP, WEEK))
+            .map(MembershipWeekUsage::getUsed)
+            .orElse(0);
+    }
+    
+    @Test
+    void testConsumeStopsAtWeeklyLimit() {
+        assertEquals(1, consume(2));
+        assertEquals(1, consume(2));
+        assertEquals(0, consume(2));
+        assertEquals(2, used());
+    }
+    
+    @Test
+    void testConcurrentConsumesNeverExceedLimit() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return consume(5);
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            assertEquals(5, granted);
+            assertEquals(5, used());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testReleaseGivesBackOneSessionAndNeverGoesNegative() {
+        consume(2);
+        consume(2);
+        
+        assertEquals(1, tx.execute(status -> repository.release(MEMBERSHIP, WEEK)));
+        assertEquals(1, consume(2));
+        assertEquals(0, consume(2));
+        
+        tx.execute(status -> repository.release(MEMBERSHIP, WEEK));
+        tx.execute(status -> repository.release(MEMBERSHIP, WEEK));
+        assertEquals(0, tx.execute(status -> repository.release(MEMBERSHIP, WEEK)));
+        assertEquals(0, used());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du filtre JWT : autorités du mode sans état, révocation par version et repli sur la base
+ */
+class JwtAuthenticationFilterTest {
+    
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private TokenVersionCache tokenVersionCache;
+    
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 60_000, 100);
+        userDetailsService = mock(UserDetailsService.class);
+        tokenVersionCache = mock(TokenVersionCache.class);
+    }
+    
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    private Authentication filter(boolean stateless, String token) throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenVersionCache, stateless);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/adherents");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        
+        assertNotNull(chain.getRequest(), "la requête doit toujours poursuivre la chaîne");
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+    
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+    
+    private static AuthenticatedUser user(String role, int version, boolean enabled) {
+        return new AuthenticatedUser("jean@test.fr", "hash", role, version, enabled,
+            List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+    
+    // ===== MODE SANS ÉTAT =====
+    
+    @Test
+    void testStatelessTokenCarriesItsAuthorities() throws Exception {
+        when(tokenVersionCache.isCurrent("jean@test.fr", 3)).thenReturn(true);
+        
+        Authentication authentication = filter(true, jwtService.generateToken("jean@test.fr", "ADMIN", 3));
+        
+        assertEquals(List.of("ROLE_ADMIN"), authorities(authentication));
+        verifyNoInteractions(userDetailsService);
+    }
+    
+    @Test
+    void testStatelessRevokedTokenIsIgnored() throws Exception {
+        when(tokenVersionCache.isCurrent("jean@test.fr", 3)).thenReturn(false);
+        
+        assertNull(filter(true, jwtService.generateToken("jean@test.fr", "ADMIN", 3)));
+    }
+    
+    @Test
+    void testTokenWithoutRoleFallsBackToDatabase() throws Exception {
+        when(userDetailsService.loadUserByUsername("jean@test.fr")).thenReturn(user("USER", 0, true));
+        
+        Authentication authentication = filter(true, jwtService.generateToken("jean@test.fr"));
+        
+        assertEquals(List.of("ROLE_USER"), authorities(authentication));
+        verify(tokenVersionCache, never()).isCurrent(any(), anyInt());
+    }
+    
+    // ===== REPLI SUR LA BASE =====
+    
+    @Test
+    void testDatabaseModeUsesCurrentRoleNotTokenRole() throws Exception {
+        when(userDetailsService.loadUserByUsername("jean@test.fr")).thenReturn(user("USER", 2, true));
+        
+        Authentication authentication = filter(false, jwtService.generateToken("jean@test.fr", "ADMIN", 2));
+        
+        assertEquals(List.of("ROLE_USER"), authorities(authentication));
+    }
+    
+    @Test
+    void testDatabaseModeRejectsOutdatedVersion() throws Exception {
+        // Mot de passe ou rôle changé depuis l'émission du token
+        when(userDetailsService.loadUserByUsername("jean@test.fr")).thenReturn(user("ADMIN", 2, true));
+        
+        assertNull(filter(false, jwtService.generateToken("jean@test.fr", "ADMIN", 1)));
+    }
+    
+    @Test
+    void testDatabaseModeRejectsDisabledUser() throws Exception {
+        when(userDetailsService.loadUserByUsername("jean@test.fr")).thenReturn(user("USER", 0, false));
+        
+        assertNull(filter(false, jwtService.generateToken("jean@test.fr", "USER", 0)));
+    }
+    
+    @Test
+    void testDatabaseModeIgnoresDeletedUser() throws Exception {
+        when(userDetailsService.loadUserByUsername("jean@test.fr")).thenThrow(new UsernameNotFoundException("absent"));
+        
+        assertNull(filter(false, jwtService.generateToken("jean@test.fr", "USER", 0)));
+    }
+    
+    @Test
+    void testInvalidTokenIsIgnored() throws Exception {
+        assertNull(filter(true, "pas.un.token"));
+        verifyNoInteractions(userDetailsService, tokenVersionCache);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du cache de vérification des tokens : expiration des entrées et éviction LRU
+ */
+class JwtServiceTest {
+    
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    
+    @Test
+    void testCachedTokenStopsAuthenticatingOnceExpired() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100, clock);
+        String token = jwtService.generateToken("jean@test.fr", "USER", 0);
+        
+        assertEquals("jean@test.fr", jwtService.verify(token).username());
+        assertTrue(jwtService.isCached(token));
+        
+        clock.advance(Duration.ofSeconds(59));
+        assertEquals("jean@test.fr", jwtService.verify(token).username());
+        
+        clock.advance(Duration.ofSeconds(1));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(token));
+        assertFalse(jwtService.isCached(token));
+    }
+    
+    @Test
+    void testLeastRecentlyUsedTokenIsEvictedAtCapacity() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 2, clock);
+        String first = jwtService.generateToken("a@test.fr", "USER", 0);
+        String second = jwtService.generateToken("b@test.fr", "USER", 0);
+        String third = jwtService.generateToken("c@test.fr", "USER", 0);
+        
+        jwtService.verify(first);
+        jwtService.verify(second);
+        // Accès récent : c'est désormais le second qui est le moins récemment utilisé
+        jwtService.verify(first);
+        jwtService.verify(third);
+        
+        assertTrue(jwtService.isCached(first));
+        assertFalse(jwtService.isCached(second));
+        assertTrue(jwtService.isCached(third));
+        // Un token évincé est simplement revérifié
+        assertEquals("b@test.fr", jwtService.verify(second).username());
+    }
+    
+    @Test
+    void testZeroCacheSizeDisablesCache() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 0, clock);
+        String token = jwtService.generateToken("jean@test.fr", "USER", 0);
+        
+        assertEquals("jean@test.fr", jwtService.verify(token).username());
+        assertFalse(jwtService.isCached(token));
+    }
+    
+    // Horloge avancée à la main, partagée par l'émission et la vérification
+    private static final class MutableClock extends Clock {
+        
+        private Instant now;
+        
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+        
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
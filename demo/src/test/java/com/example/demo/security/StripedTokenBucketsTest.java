@@ -0,0 +1,123 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour la limitation de débit par seaux à jetons
+ */
+class StripedTokenBucketsTest {
+    
+    private static final long ONE_MINUTE = 60_000_000_000L;
+    
+    private AtomicLong clock;
+    private StripedTokenBuckets buckets;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        buckets = new StripedTokenBuckets(3, 6, clock::get);
+    }
+    
+    @Test
+    void testBurstUpToCapacityThenRejects() {
+        assertTrue(buckets.tryAcquire("10.0.0.1"));
+        assertTrue(buckets.tryAcquire("10.0.0.1"));
+        assertTrue(buckets.tryAcquire("10.0.0.1"));
+        assertFalse(buckets.tryAcquire("10.0.0.1"));
+    }
+    
+    @Test
+    void testKeysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("alice");
+        }
+        assertFalse(buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("bob"));
+    }
+    
+    @Test
+    void testTokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("alice");
+        }
+        assertFalse(buckets.tryAcquire("alice"));
+        
+        // 6 jetons par minute : un jeton toutes les 10 secondes
+        clock.addAndGet(ONE_MINUTE / 6);
+        assertTrue(buckets.tryAcquire("alice"));
+        assertFalse(buckets.tryAcquire("alice"));
+        
+        // Le seau ne dépasse jamais sa capacité
+        clock.addAndGet(10 * ONE_MINUTE);
+        assertTrue(buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("alice"));
+        assertFalse(buckets.tryAcquire("alice"));
+    }
+    
+    @Test
+    void testFullBucketsArePurgedWhenStripeGrows() {
+        for (int i = 0; i < 200_000; i++) {
+            buckets.tryAcquire("ip-" + i);
+            clock.addAndGet(ONE_MINUTE);
+        }
+        assertTrue(buckets.size() < 200_000);
+    }
+    
+    @Test
+    void testSaturatedStripeKeepsThrottledKey() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("victim");
+        }
+        assertFalse(buckets.tryAcquire("victim"));
+        
+        // Inondation du même segment sans laisser passer le temps
+        int flooded = 0;
+        for (int i = 0; flooded < 5_000; i++) {
+            String key = "flood-" + i;
+            if (sameStripe(key, "victim")) {
+                buckets.tryAcquire(key);
+                flooded++;
+            }
+        }
+        assertFalse(buckets.tryAcquire("victim"));
+    }
+    
+    @Test
+    void testNewKeyWaitsWhenStripeHoldsOnlyDepletedBuckets() {
+        int depleted = 0;
+        int i = 0;
+        while (depleted < 1024) {
+            String key = "attacker-" + i++;
+            if (sameStripe(key, "victim")) {
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    buckets.tryAcquire(key);
+                }
+                depleted++;
+            }
+        }
+        String newcomer = "newcomer-0";
+        for (int n = 1; !sameStripe(newcomer, "victim"); n++) {
+            newcomer = "newcomer-" + n;
+        }
+        assertFalse(buckets.tryAcquire(newcomer));
+        
+        // Une fois les seaux remplis, la place se libère
+        clock.addAndGet(ONE_MINUTE);
+        assertTrue(buckets.tryAcquire(newcomer));
+    }
+    
+    @Test
+    void testRetryAfterReflectsRefillRate() {
+        assertEquals(10, buckets.secondsUntilNextToken());
+    }
+    
+    private static boolean sameStripe(String a, String b) {
+        return (a.hashCode() & 0x7fffffff) % 64 == (b.hashCode() & 0x7fffffff) % 64;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.ImportReport;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.repository.AdherentBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de l'import en masse (lecture CSV/NDJSON, rejets, découpage en lots)
+ */
+class AdherentImportServiceTest {
+
+    private static final String HEADER = "firstName,lastName,email,phoneNumber,dateOfBirth,address\n";
+
+    private AdherentBulkRepository bulkRepository;
+    private MembershipCounterService membershipCounterService;
+    private AdherentSearchIndex searchIndex;
+    private EligibilitySnapshot eligibilitySnapshot;
+    private final List<List<String>> insertedChunks = new ArrayList<>();
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        bulkRepository = mock(AdherentBulkRepository.class);
+        membershipCounterService = mock(MembershipCounterService.class);
+        searchIndex = mock(AdherentSearchIndex.class);
+        eligibilitySnapshot = mock(EligibilitySnapshot.class);
+        when(bulkRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(bulkRepository.insertAdherents(anyList(), any())).thenAnswer(invocation -> {
+            List<Adherent> adherents = invocation.getArgument(0);
+            insertedChunks.add(adherents.stream().map(Adherent::getEmail).toList());
+            adherents.forEach(a -> a.setId(nextId++));
+            return new int[adherents.size()];
+        });
+    }
+
+    private AdherentImportService service(int chunkSize) {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        return new AdherentImportService(bulkRepository, membershipCounterService, searchIndex, eligibilitySnapshot,
+            passwordEncoder, validator, new ObjectMapper().findAndRegisterModules(),
+            mock(PlatformTransactionManager.class), chunkSize);
+    }
+
+    private ImportReport importCsv(int chunkSize, String csv) throws IOException {
+        return service(chunkSize).importAdherents(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), AdherentImportService.FORMAT_CSV);
+    }
+
+    private static String row(String email) {
+        return "Jean,Dupont," + email + ",0601020304,1990-01-01,1 rue de la Paix\n";
+    }
+
+    // ===== LECTURE CSV =====
+
+    @Test
+    void testParseCsvRecordHandlesQuotesAndEscapedQuotes() throws IOException {
+        long[] lineNumber = {1};
+        List<String> fields = AdherentImportService.parseCsvRecord(
+            "\"Dupont, Jr.\",\"Il a dit \"\"bonjour\"\"\",,fin", new BufferedReader(new StringReader("")), ',', lineNumber);
+
+        assertEquals(List.of("Dupont, Jr.", "Il a dit \"bonjour\"", "", "fin"), fields);
+        assertEquals(1, lineNumber[0]);
+    }
+
+    @Test
+    void testParseCsvRecordJoinsLinesOfQuotedField() throws IOException {
+        long[] lineNumber = {2};
+        BufferedReader reader = new BufferedReader(new StringReader("Bâtiment B\",Lyon\nligne suivante"));
+
+        List<String> fields = AdherentImportService.parseCsvRecord("\"12 rue Haute", reader, ',', lineNumber);
+
+        assertEquals(List.of("12 rue Haute\nBâtiment B", "Lyon"), fields);
+        assertEquals(3, lineNumber[0]);
+        assertEquals("ligne suivante", reader.readLine());
+    }
+
+    @Test
+    void testSemicolonHeaderWithByteOrderMarkAndQuotedAddress() throws IOException {
+        String csv = "\uFEFFFirst Name;last_name;E-mail;phone;birthdate;address\n" +
+            "Jean;Dupont;jean@test.fr;0601020304;1990-01-01;\"3 place; bâtiment \"\"A\"\"\"\n";
+
+        ImportReport report = importCsv(500, csv);
+
+        assertEquals(1, report.imported());
+        verify(searchIndex).put(1L, "Jean", "Dupont", "jean@test.fr");
+    }
+
+    // ===== REJETS =====
+
+    @Test
+    void testBadRowsAreRejectedWithTheirLineNumber() throws IOException {
+        String csv = HEADER +
+            row("ok@test.fr") +
+            "Jean,Dupont,date@test.fr,0601020304,01/01/1990,1 rue de la Paix\n" +
+            "Jean,Dupont,pas-un-email,0601020304,1990-01-01,1 rue de la Paix\n" +
+            "\n" +
+            row("ok2@test.fr");
+
+        ImportReport report = importCsv(500, csv);
+
+        assertEquals(4, report.totalRows());
+        assertEquals(2, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(3, report.errors().get(0).line());
+        assertEquals("date@test.fr", report.errors().get(0).email());
+        assertEquals(4, report.errors().get(1).line());
+        assertEquals(List.of(List.of("ok@test.fr", "ok2@test.fr")), insertedChunks);
+    }
+
+    @Test
+    void testInvalidJsonLineIsRejected() throws IOException {
+        String ndjson = "{\"firstName\":\"Jean\",\"lastName\":\"Dupont\",\"email\":\"json@test.fr\"," +
+            "\"phoneNumber\":\"0601020304\",\"dateOfBirth\":\"1990-01-01\",\"address\":\"1 rue\"}\n" +
+            "{pas du json\n";
+
+        ImportReport report = service(500).importAdherents(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), AdherentImportService.FORMAT_NDJSON);
+
+        assertEquals(1, report.imported());
+        assertEquals(1, report.rejected());
+        assertEquals(2, report.errors().get(0).line());
+    }
+
+    @Test
+    void testDuplicateEmailWithinFileIsRejected() throws IOException {
+        ImportReport report = importCsv(500, HEADER + row("twice@test.fr") + row("TWICE@test.fr"));
+
+        assertEquals(1, report.imported());
+        assertEquals("Email en double dans le fichier", report.errors().get(0).message());
+        assertEquals(3, report.errors().get(0).line());
+    }
+
+    @Test
+    void testEmailAlreadyInDatabaseIsRejected() throws IOException {
+        when(bulkRepository.findExistingEmails(any())).thenReturn(Set.of("taken@test.fr"));
+
+        ImportReport report = importCsv(500, HEADER + row("new@test.fr") + row("taken@test.fr"));
+
+        assertEquals(1, report.imported());
+        assertEquals("Email existe déjà", report.errors().get(0).message());
+        assertEquals(List.of(List.of("new@test.fr")), insertedChunks);
+    }
+
+    // ===== LOTS =====
+
+    @Test
+    void testRowsAreFlushedAtChunkBoundaries() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 5; i++) {
+            csv.append(row("m" + i + "@test.fr"));
+        }
+
+        ImportReport report = importCsv(2, csv.toString());
+
+        assertEquals(5, report.imported());
+        assertEquals(List.of(
+            List.of("m1@test.fr", "m2@test.fr"),
+            List.of("m3@test.fr", "m4@test.fr"),
+            List.of("m5@test.fr")), insertedChunks);
+        verify(bulkRepository, times(3)).findExistingEmails(any());
+        verify(membershipCounterService, times(3)).recordCreated(any(), anyInt());
+        verify(eligibilitySnapshot).requestRebuild();
+    }
+
+    @Test
+    void testFailedChunkIsRejectedAndLaterChunksContinue() throws IOException {
+        doThrow(new DataIntegrityViolationException("uk_email"))
+            .doAnswer(invocation -> {
+                List<Adherent> adherents = invocation.getArgument(0);
+                adherents.forEach(a -> a.setId(nextId++));
+                return new int[adherents.size()];
+            })
+            .when(bulkRepository).insertAdherents(anyList(), any());
+
+        ImportReport report = importCsv(2, HEADER + row("a@test.fr") + row("b@test.fr") + row("c@test.fr"));
+
+        assertEquals(1, report.imported());
+        assertEquals(2, report.rejected());
+        assertTrue(report.errors().get(0).message().startsWith("Lot rejeté par la base"));
+        verify(searchIndex).put(1L, "Jean", "Dupont", "c@test.fr");
+    }
+}
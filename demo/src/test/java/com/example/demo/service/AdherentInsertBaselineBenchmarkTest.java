@@ -0,0 +1,20 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Référence de la comparaison : mêmes mesures que {@link AdherentInsertBenchmarkTest},
+ * batching JDBC désactivé (une instruction par ligne, aucune réécriture des lots par le pilote)
+ */
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.jdbc.batch_size=1",
+    "spring.jpa.properties.hibernate.order_inserts=false",
+    "spring.jpa.properties.hibernate.order_updates=false",
+    "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class AdherentInsertBaselineBenchmarkTest extends AdherentInsertBenchmark {
+}
@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.example.demo.PostgresTestConfiguration;
+import com.example.demo.model.dto.ImportReport;
+import com.example.demo.model.entity.Adherent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mesure du débit d'insertion sur une base PostgreSQL jetable (Testcontainers), profil prod,
+ * en vérifiant que toutes les lignes sont bien créées avec des identifiants valides.
+ * Les deux sous-classes ne diffèrent que par le batching JDBC, ce qui donne la comparaison
+ * avant/après sur la même machine :
+ * mvn test -Dbenchmark=true -Dtest='AdherentInsert*BenchmarkTest'
+ * Les lignes, comptes et documents créés sont supprimés après chaque mesure.
+ */
+@SpringBootTest
+@ActiveProfiles("prod")
+@Import(PostgresTestConfiguration.class)
+@TestPropertySource(properties = "storage.documents.path=target/benchmark-documents")
+abstract class AdherentInsertBenchmark {
+    
+    private static final Logger log = Logger.getLogger(AdherentInsertBenchmark.class.getName());
+    private static final int SINGLE_ROWS = 200;
+    private static final int BULK_ROWS = 5_000;
+    private static final byte[] CERTIFICATE = "%PDF-1.4 certificat".getBytes(StandardCharsets.US_ASCII);
+    
+    @Autowired
+    private AdherentService adherentService;
+    
+    @Autowired
+    private AdherentImportService adherentImportService;
+    
+    @Autowired
+    private MembershipCounterService membershipCounterService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${storage.documents.path}")
+    private String documentsPath;
+    
+    private final List<String> prefixes = new ArrayList<>();
+    
+    @AfterEach
+    void cleanUp() throws IOException {
+        for (String prefix : prefixes) {
+            jdbcTemplate.update("DELETE FROM users u USING adherents a WHERE a.id = u.adherent_id AND a.email LIKE ?",
+                prefix + "-%");
+            jdbcTemplate.update("DELETE FROM adherents WHERE email LIKE ?", prefix + "-%");
+        }
+        prefixes.clear();
+        membershipCounterService.reconcile();
+        FileSystemUtils.deleteRecursively(Paths.get(documentsPath));
+    }
+    
+    private String newPrefix(String kind) {
+        String prefix = kind + "-" + System.nanoTime();
+        prefixes.add(prefix);
+        return prefix;
+    }
+    
+    @Test
+    void benchmarkCreateAdherent() {
+        String prefix = newPrefix("bench");
+        Set<Long> ids = new HashSet<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            Adherent adherent = new Adherent();
+            adherent.setFirstName("Bench");
+            adherent.setLastName("Member");
+            adherent.setEmail(prefix + "-" + i + "@example.com");
+            adherent.setPhoneNumber("0600000000");
+            adherent.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            adherent.setAddress("1 rue du Stade");
+            adherent.setMedicalCertificate(CERTIFICATE);
+            ids.add(adherentService.createAdherent(adherent).getId());
+        }
+        report("createAdherent", SINGLE_ROWS, System.nanoTime() - start);
+        
+        assertEquals(SINGLE_ROWS, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id >= 1));
+        assertEquals(SINGLE_ROWS, countPersisted(prefix));
+    }
+    
+    @Test
+    void benchmarkBulkImport() throws Exception {
+        String prefix = newPrefix("bulk");
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,phoneNumber,dateOfBirth,address\n");
+        for (int i = 0; i < BULK_ROWS; i++) {
+            csv.append("Bench,Member,").append(prefix).append('-').append(i)
+               .append("@example.com,0600000000,1990-01-01,1 rue du Stade\n");
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+        
+        long start = System.nanoTime();
+        ImportReport result = adherentImportService.importAdherents(new ByteArrayInputStream(body),
+            AdherentImportService.FORMAT_CSV);
+        report("import CSV", BULK_ROWS, System.nanoTime() - start);
+        
+        assertEquals(BULK_ROWS, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(BULK_ROWS, countPersisted(prefix));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM adherents WHERE email LIKE ? AND id < 1", Integer.class, prefix + "-%"));
+        assertEquals(BULK_ROWS, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users u JOIN adherents a ON a.id = u.adherent_id WHERE a.email LIKE ?",
+            Integer.class, prefix + "-%"));
+    }
+    
+    private int countPersisted(String prefix) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM adherents WHERE email LIKE ?", Integer.class, prefix + "-%");
+    }
+    
+    private void report(String label, int rows, long nanos) {
+        double seconds = nanos / 1e9;
+        log.info(String.format("[%s] %s : %d lignes en %.2f s (%.0f lignes/s)",
+            getClass().getSimpleName(), label, rows, seconds, rows / seconds));
+    }
+}
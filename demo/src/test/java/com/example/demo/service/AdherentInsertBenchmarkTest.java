@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Débit d'insertion avec le batching JDBC du profil prod (application-prod.properties).
+ * Désactivé par défaut : voir {@link AdherentInsertBenchmark}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class AdherentInsertBenchmarkTest extends AdherentInsertBenchmark {
+}
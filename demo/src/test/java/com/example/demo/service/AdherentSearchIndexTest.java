@@ -0,0 +1,72 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.AdherentSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour l'index de recherche par trigrammes
+ */
+class AdherentSearchIndexTest {
+    
+    private AdherentSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new AdherentSearchIndex();
+        index.put(1L, "Hélène", "Dupont", "helene.dupont@example.com");
+        index.put(2L, "François", "Lefèvre", "f.lefevre@example.com");
+        index.put(3L, "Jean", "Martin", "jean.martin@example.com");
+    }
+    
+    @Test
+    void testSearchIgnoresAccents() {
+        List<AdherentSuggestion> result = index.search("helene", 10);
+        
+        assertFalse(result.isEmpty());
+        assertEquals(1L, result.get(0).id());
+        assertEquals("Hélène Dupont", result.get(0).displayName());
+    }
+    
+    @Test
+    void testSearchMatchesPrefixWhileTyping() {
+        List<AdherentSuggestion> result = index.search("lef", 10);
+        
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).id());
+    }
+    
+    @Test
+    void testSearchByEmail() {
+        List<AdherentSuggestion> result = index.search("jean.martin", 10);
+        
+        assertEquals(3L, result.get(0).id());
+    }
+    
+    @Test
+    void testSearchRespectsLimit() {
+        index.put(4L, "Jeanne", "Martinez", "jeanne@example.com");
+        
+        assertEquals(1, index.search("mar", 1).size());
+    }
+    
+    @Test
+    void testUpdateReplacesPreviousEntry() {
+        index.put(3L, "Jean", "Bernard", "jean.bernard@example.com");
+        
+        assertTrue(index.search("martin", 10).isEmpty());
+        assertEquals(3L, index.search("bernard", 10).get(0).id());
+    }
+    
+    @Test
+    void testRemove() {
+        index.remove(1L);
+        
+        assertTrue(index.search("dupont", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+}
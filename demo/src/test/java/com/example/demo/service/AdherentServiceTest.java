@@ -1,21 +1,47 @@
 package com.example.demo.service;
 
+import com.example.demo.model.dto.AdherentStatusRow;
+import com.example.demo.model.dto.AdherentSummary;
+import com.example.demo.model.dto.BulkResult;
+import com.example.demo.model.dto.BulkStatusRequest;
+import com.example.demo.model.dto.EligibilityRow;
+import com.example.demo.model.dto.EligibilityVerdict;
+import com.example.demo.model.dto.StoredDocument;
 import com.example.demo.model.entity.Adherent;
 import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.BulkOutcome;
+import com.example.demo.model.enums.EligibilityReason;
+import com.example.demo.model.enums.SubscriptionType;
 import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.MembershipRepository;
 import com.example.demo.repository.SubscriptionRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +56,30 @@ class AdherentServiceTest {
     @Mock
     private SubscriptionRepository subscriptionRepository;
     
+    @Mock
+    private MembershipRepository membershipRepository;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    
+    @Mock
+    private DocumentStorageService documentStorageService;
+    
+    @Mock
+    private AdherentSearchIndex searchIndex;
+    
+    @Mock
+    private MembershipCounterService membershipCounterService;
+    
+    @Mock
+    private EligibilitySnapshot eligibilitySnapshot;
+    
+    @Mock
+    private Validator validator;
+    
     @InjectMocks
     private AdherentService adherentService;
     
@@ -53,8 +103,11 @@ class AdherentServiceTest {
         adherent.setFirstName("Jane");
         adherent.setLastName("Smith");
         adherent.setEmail("jane@example.com");
+        adherent.setMedicalCertificate(new byte[] {1, 2, 3});
         
         when(adherentRepository.existsByEmail("jane@example.com")).thenReturn(false);
+        when(documentStorageService.store(any(byte[].class)))
+            .thenReturn(new StoredDocument("ab".repeat(32), 3L, "application/pdf"));
         when(adherentRepository.save(any(Adherent.class))).thenReturn(testAdherent);
         
         Adherent result = adherentService.createAdherent(adherent);
@@ -78,6 +131,81 @@ class AdherentServiceTest {
         verify(adherentRepository, never()).save(any());
     }
     
+    @Test
+    void testCreateAdherentWithoutMedicalCertificate() {
+        Adherent adherent = new Adherent();
+        adherent.setEmail("jane@example.com");
+        adherent.setMedicalCertificate(new byte[0]);
+        
+        when(adherentRepository.existsByEmail("jane@example.com")).thenReturn(false);
+        
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> adherentService.createAdherent(adherent));
+        
+        assertEquals("Le certificat médical est obligatoire", error.getMessage());
+        verifyNoInteractions(documentStorageService);
+        verify(adherentRepository, never()).save(any());
+    }
+    
+    @Test
+    void testGetPhotoOfOwnAdherent() {
+        StoredDocument photo = new StoredDocument("cd".repeat(32), 10L, "image/png");
+        when(userRepository.findAdherentIdByUsername("john@example.com")).thenReturn(Optional.of(1L));
+        when(adherentRepository.findPhoto(1L)).thenReturn(Optional.of(photo));
+        
+        assertEquals(photo, adherentService.getPhoto(1L, "john@example.com", false));
+    }
+    
+    @Test
+    void testGetPhotoOfAnotherAdherentIsForbidden() {
+        when(userRepository.findAdherentIdByUsername("john@example.com")).thenReturn(Optional.of(1L));
+        
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+            () -> adherentService.getPhoto(2L, "john@example.com", false));
+        
+        assertEquals(403, error.getStatusCode().value());
+        verify(adherentRepository, never()).findPhoto(any());
+    }
+    
+    @Test
+    void testAdminGetsAnyPhoto() {
+        StoredDocument photo = new StoredDocument("cd".repeat(32), 10L, "image/png");
+        when(adherentRepository.findPhoto(2L)).thenReturn(Optional.of(photo));
+        
+        assertEquals(photo, adherentService.getPhoto(2L, "admin", true));
+        verifyNoInteractions(userRepository);
+    }
+    
+    @Test
+    void testCreateAdherentStoresCertificateOutsideRow() {
+        Adherent adherent = new Adherent();
+        adherent.setEmail("jane@example.com");
+        adherent.setMedicalCertificate(new byte[] {1, 2, 3});
+        StoredDocument stored = new StoredDocument("ab".repeat(32), 3L, "application/pdf");
+        
+        when(adherentRepository.existsByEmail("jane@example.com")).thenReturn(false);
+        when(documentStorageService.store(any(byte[].class))).thenReturn(stored);
+        when(adherentRepository.save(any(Adherent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Adherent result = adherentService.createAdherent(adherent);
+        
+        assertTrue(result.hasMedicalCertificate());
+        assertEquals(3L, result.getMedicalCertificateSize());
+        assertNull(result.getMedicalCertificate());
+    }
+    
+    @Test
+    void testCertificateUploadOverDeclaredLimitIsRejectedBeforeReading() {
+        InputStream content = new ByteArrayInputStream(new byte[16]);
+        doThrow(new MaxUploadSizeExceededException(10)).when(documentStorageService).checkDeclaredSize(16);
+        
+        assertThrows(MaxUploadSizeExceededException.class, () -> adherentService.updateMedicalCertificate(
+            1L, content, 16, null, null));
+        
+        verify(documentStorageService, never()).storeUpload(any());
+        verifyNoInteractions(adherentRepository);
+    }
+    
     @Test
     void testGetAdherentById() {
         when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
@@ -122,4 +250,257 @@ class AdherentServiceTest {
         assertNotNull(result);
         assertEquals(AdherentStatus.ACTIVE, result.getStatus());
     }
+    
+    @Test
+    void testPatchAdherentChangesOnlyPatchedFields() throws Exception {
+        testAdherent.setVersion(3L);
+        testAdherent.setCity("Lyon");
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        when(adherentRepository.saveAndFlush(any(Adherent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Adherent result = adherentService.patchAdherent(1L,
+            new ObjectMapper().readTree("{\"phoneNumber\": \"0600000000\", \"city\": null}"), 3L);
+        
+        assertEquals("0600000000", result.getPhoneNumber());
+        assertNull(result.getCity());
+        assertEquals("John", result.getFirstName());
+    }
+    
+    @Test
+    void testPatchAdherentWithStaleVersionIsRejected() throws Exception {
+        testAdherent.setVersion(4L);
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+            adherentService.patchAdherent(1L, new ObjectMapper().readTree("{\"city\": \"Paris\"}"), 3L));
+        
+        assertEquals(409, e.getStatusCode().value());
+        verify(adherentRepository, never()).saveAndFlush(any());
+    }
+    
+    // ===== DATES DU CERTIFICAT =====
+    
+    @Test
+    void testPatchCertificateKeepsItsDates() throws Exception {
+        testAdherent.attachMedicalCertificate(new StoredDocument("ab".repeat(32), 3L, "application/pdf"),
+            LocalDate.of(2026, 1, 10), LocalDate.of(2027, 1, 10));
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        when(documentStorageService.store(any(byte[].class)))
+            .thenReturn(new StoredDocument("cd".repeat(32), 4L, "application/pdf"));
+        when(adherentRepository.saveAndFlush(any(Adherent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Adherent result = adherentService.patchAdherent(1L,
+            new ObjectMapper().readTree("{\"medicalCertificate\": \"AQIDBA==\"}"), null);
+        
+        assertEquals(4L, result.getMedicalCertificateSize());
+        assertEquals(LocalDate.of(2026, 1, 10), result.getMedicalCertificateIssuedOn());
+        assertEquals(LocalDate.of(2027, 1, 10), result.getMedicalCertificateExpiresOn());
+    }
+    
+    @Test
+    void testPatchCertificateWithItsDates() throws Exception {
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        when(documentStorageService.store(any(byte[].class)))
+            .thenReturn(new StoredDocument("cd".repeat(32), 4L, "application/pdf"));
+        when(adherentRepository.saveAndFlush(any(Adherent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Adherent result = adherentService.patchAdherent(1L, new ObjectMapper().readTree(
+            "{\"medicalCertificate\": \"AQIDBA==\", \"medicalCertificateIssuedOn\": \"2026-03-01\", " +
+            "\"medicalCertificateExpiresOn\": \"2027-03-01\"}"), null);
+        
+        assertTrue(result.hasMedicalCertificate());
+        assertEquals(LocalDate.of(2026, 3, 1), result.getMedicalCertificateIssuedOn());
+        assertEquals(LocalDate.of(2027, 3, 1), result.getMedicalCertificateExpiresOn());
+    }
+    
+    @Test
+    void testPatchExpiryBeforeIssueIsRejected() throws Exception {
+        testAdherent.setMedicalCertificateIssuedOn(LocalDate.of(2026, 3, 1));
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> adherentService.patchAdherent(1L,
+            new ObjectMapper().readTree("{\"medicalCertificateExpiresOn\": \"2026-02-28\"}"), null));
+        
+        assertEquals(400, e.getStatusCode().value());
+        verify(adherentRepository, never()).saveAndFlush(any());
+    }
+    
+    @Test
+    void testProfilePatchCannotReplaceCertificate() throws Exception {
+        testAdherent.attachMedicalCertificate(new StoredDocument("ab".repeat(32), 3L, "application/pdf"),
+            LocalDate.of(2026, 1, 10), LocalDate.of(2027, 1, 10));
+        when(userRepository.findAdherentIdByUsername("john@example.com")).thenReturn(Optional.of(1L));
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> adherentService.patchProfile(
+            "john@example.com", new ObjectMapper().readTree("{\"medicalCertificate\": \"AQIDBA==\"}"), null));
+        
+        assertEquals(400, e.getStatusCode().value());
+        verifyNoInteractions(documentStorageService);
+        verify(adherentRepository, never()).saveAndFlush(any());
+    }
+    
+    @Test
+    void testUpdateAdherentKeepsDatesUnlessProvided() {
+        testAdherent.attachMedicalCertificate(new StoredDocument("ab".repeat(32), 3L, "application/pdf"),
+            LocalDate.of(2026, 1, 10), LocalDate.of(2027, 1, 10));
+        Adherent updates = new Adherent();
+        updates.setMedicalCertificate(new byte[] {1, 2, 3, 4});
+        updates.setMedicalCertificateExpiresOn(LocalDate.of(2027, 6, 30));
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        when(documentStorageService.store(any(byte[].class)))
+            .thenReturn(new StoredDocument("cd".repeat(32), 4L, "application/pdf"));
+        when(adherentRepository.save(any(Adherent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Adherent result = adherentService.updateAdherent(1L, updates);
+        
+        assertEquals(4L, result.getMedicalCertificateSize());
+        assertEquals(LocalDate.of(2026, 1, 10), result.getMedicalCertificateIssuedOn());
+        assertEquals(LocalDate.of(2027, 6, 30), result.getMedicalCertificateExpiresOn());
+    }
+    
+    @Test
+    void testCreateAdherentWithExpiryBeforeIssueIsRejected() {
+        Adherent adherent = new Adherent();
+        adherent.setEmail("jane@example.com");
+        adherent.setMedicalCertificate(new byte[] {1, 2, 3});
+        adherent.setMedicalCertificateIssuedOn(LocalDate.of(2026, 3, 1));
+        adherent.setMedicalCertificateExpiresOn(LocalDate.of(2025, 3, 1));
+        when(adherentRepository.existsByEmail("jane@example.com")).thenReturn(false);
+        
+        assertThrows(IllegalArgumentException.class, () -> adherentService.createAdherent(adherent));
+        
+        verifyNoInteractions(documentStorageService);
+        verify(adherentRepository, never()).save(any());
+    }
+    
+    @Test
+    void testCertificateUploadWithExpiryBeforeIssueIsRejected() {
+        InputStream content = new ByteArrayInputStream(new byte[16]);
+        
+        assertThrows(IllegalArgumentException.class, () -> adherentService.updateMedicalCertificate(
+            1L, content, 16, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 2, 1)));
+        
+        verify(documentStorageService, never()).storeUpload(any());
+        verifyNoInteractions(adherentRepository);
+    }
+    
+    @Test
+    void testBulkReactivateOnlyTouchesSuspended() {
+        when(adherentRepository.findStatusRows(any())).thenReturn(List.of(
+            new AdherentStatusRow(1L, AdherentStatus.SUSPENDED),
+            new AdherentStatusRow(2L, AdherentStatus.ACTIVE),
+            new AdherentStatusRow(3L, AdherentStatus.DEACTIVATED)));
+        when(adherentRepository.reactivateAll(eq(List.of(1L)), any())).thenReturn(1);
+        
+        BulkResult result = adherentService.reactivateAdherents(new BulkStatusRequest(List.of(1L, 2L, 3L, 4L), null, null));
+        
+        assertEquals(1, result.updated());
+        assertEquals(BulkOutcome.UPDATED, result.outcomes().get(1L));
+        assertEquals(BulkOutcome.UNCHANGED, result.outcomes().get(2L));
+        assertEquals(BulkOutcome.NOT_APPLICABLE, result.outcomes().get(3L));
+        assertEquals(BulkOutcome.NOT_FOUND, result.outcomes().get(4L));
+        verify(membershipCounterService).recordTransition(AdherentStatus.SUSPENDED, AdherentStatus.ACTIVE, 1L);
+        verify(eligibilitySnapshot).requestRebuild();
+        verify(adherentRepository, never()).save(any());
+    }
+    
+    @Test
+    void testBulkBySubscriptionTypeOverLimitIsRejected() {
+        List<AdherentStatusRow> rows = LongStream.rangeClosed(1, 5001)
+            .mapToObj(id -> new AdherentStatusRow(id, AdherentStatus.ACTIVE))
+            .toList();
+        when(adherentRepository.findStatusRowsBySubscriptionType(eq(SubscriptionType.BASIC), any())).thenReturn(rows);
+        
+        assertThrows(IllegalArgumentException.class, () ->
+            adherentService.suspendAdherents(new BulkStatusRequest(null, SubscriptionType.BASIC, "Impayé")));
+        
+        verify(adherentRepository, never()).suspendAll(any(), any(), any());
+        verifyNoInteractions(membershipCounterService);
+    }
+    
+    @Test
+    void testBulkBySubscriptionTypeReadsOneRowPastTheLimit() {
+        when(adherentRepository.findStatusRowsBySubscriptionType(eq(SubscriptionType.BASIC), any()))
+            .thenReturn(List.of(new AdherentStatusRow(1L, AdherentStatus.ACTIVE)));
+        when(adherentRepository.suspendAll(eq(List.of(1L)), eq("Impayé"), any())).thenReturn(1);
+        
+        BulkResult result = adherentService.suspendAdherents(new BulkStatusRequest(null, SubscriptionType.BASIC, "Impayé"));
+        
+        assertEquals(1, result.updated());
+        verify(adherentRepository).findStatusRowsBySubscriptionType(SubscriptionType.BASIC, PageRequest.of(0, 5001));
+    }
+    
+    @Test
+    void testSearchIndexIsUpdatedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            adherentService.adherentUpdated(testAdherent);
+            testAdherent.setFirstName("Johnny");
+            verifyNoInteractions(searchIndex);
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        // Valeurs relevées à l'appel, pas à la validation
+        verify(searchIndex).put(1L, "John", "Doe", "john@example.com");
+    }
+    
+    @Test
+    void testPollSearchIndexAppliesChangesFromOtherInstances() {
+        assertEquals(0, adherentService.pollSearchIndexChanges());
+        verify(adherentRepository, never()).findSummariesUpdatedSince(any());
+        
+        when(adherentRepository.findSearchableSummaries()).thenReturn(List.of());
+        adherentService.buildSearchIndex();
+        when(adherentRepository.findSummariesUpdatedSince(any())).thenReturn(List.of(
+            new AdherentSummary(7L, "Marie", "Curie", "marie@example.com", AdherentStatus.ACTIVE, null, null),
+            new AdherentSummary(8L, "Paul", "Martin", "paul@example.com", AdherentStatus.DEACTIVATED, null, null)));
+        
+        assertEquals(2, adherentService.pollSearchIndexChanges());
+        
+        verify(searchIndex).put(7L, "Marie", "Curie", "marie@example.com");
+        verify(searchIndex).remove(8L);
+    }
+    
+    @Test
+    void testRolledBackDeactivationKeepsTheSuggestion() {
+        when(adherentRepository.findById(1L)).thenReturn(Optional.of(testAdherent));
+        when(adherentRepository.save(any(Adherent.class))).thenReturn(testAdherent);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            adherentService.deactivateAdherent(1L);
+            
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        verify(searchIndex, never()).remove(any());
+    }
+    
+    @Test
+    void testCheckEligibilityReturnsReasonPerId() {
+        LocalDate today = LocalDate.now();
+        EligibilityRow eligible = new EligibilityRow(1L, AdherentStatus.ACTIVE, true, null,
+            10L, today.minusMonths(1), today.plusMonths(11), 3L, null, null);
+        EligibilityRow noCertificate = new EligibilityRow(2L, AdherentStatus.ACTIVE, false, null,
+            11L, today.minusMonths(1), today.plusMonths(11), 3L, null, null);
+        EligibilityRow expired = new EligibilityRow(3L, AdherentStatus.ACTIVE, true, null,
+            12L, today.minusYears(1), today.minusDays(1), 3L, null, null);
+        
+        when(adherentRepository.findEligibilityRows(any())).thenReturn(List.of(eligible, noCertificate, expired));
+        
+        Map<Long, EligibilityVerdict> result = adherentService.checkEligibility(List.of(1L, 2L, 3L, 4L));
+        
+        assertEquals(List.of(1L, 2L, 3L, 4L), List.copyOf(result.keySet()));
+        assertTrue(result.get(1L).eligible());
+        assertEquals(EligibilityReason.NO_MEDICAL_CERTIFICATE, result.get(2L).reason());
+        assertEquals(EligibilityReason.SUBSCRIPTION_NOT_ACTIVE, result.get(3L).reason());
+        assertEquals(EligibilityReason.NOT_FOUND, result.get(4L).reason());
+        verify(adherentRepository, times(1)).findEligibilityRows(any());
+    }
 }
@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import com.example.demo.PostgresTestConfiguration;
+import com.example.demo.model.dto.BookingView;
+import com.example.demo.model.dto.StoredDocument;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.entity.Membership;
+import com.example.demo.model.entity.MembershipWeekUsage;
+import com.example.demo.model.entity.Subscription;
+import com.example.demo.model.entity.TrainingSession;
+import com.example.demo.model.enums.BookingStatus;
+import com.example.demo.model.enums.SubscriptionType;
+import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.BookingRepository;
+import com.example.demo.repository.MembershipRepository;
+import com.example.demo.repository.MembershipWeekUsageRepository;
+import com.example.demo.repository.SubscriptionRepository;
+import com.example.demo.repository.TrainingSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de bout en bout des réservations sur PostgreSQL : chaque appel du service
+ * s'exécute dans sa propre transaction, comme en production
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostgresTestConfiguration.class, BookingService.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingServiceTest {
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @Autowired
+    private AdherentRepository adherentRepository;
+    
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+    
+    @Autowired
+    private MembershipRepository membershipRepository;
+    
+    @Autowired
+    private TrainingSessionRepository trainingSessionRepository;
+    
+    @Autowired
+    private BookingRepository bookingRepository;
+    
+    @Autowired
+    private MembershipWeekUsageRepository weekUsageRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Subscription plan;
+    private LocalDate monday;
+    
+    @BeforeEach
+    void setUp() {
+        plan = new Subscription();
+        plan.setType(SubscriptionType.BASIC);
+        plan.setPrice(30.0);
+        plan.setWeeklySessions(2);
+        plan.setDurationMonths(12);
+        plan = subscriptionRepository.save(plan);
+        monday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE bookings, membership_week_usage, training_sessions, " +
+            "memberships, adherents, subscriptions CASCADE");
+    }
+    
+    private Adherent adherent(String email) {
+        Adherent adherent = new Adherent();
+        adherent.setFirstName("Jean");
+        adherent.setLastName("Dupont");
+        adherent.setEmail(email);
+        adherent.setPhoneNumber("0601020304");
+        adherent.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        adherent.setAddress("1 rue de la Paix");
+        adherent.attachMedicalCertificate(new StoredDocument("ref-" + email, 10L, "application/pdf"));
+        adherent = adherentRepository.save(adherent);
+        Membership membership = membershipRepository.save(new Membership(adherent, plan, LocalDate.now()));
+        adherent.setCurrentMembership(membership);
+        return adherentRepository.save(adherent);
+    }
+    
+    private TrainingSession session(LocalDateTime startsAt, int capacity) {
+        TrainingSession session = new TrainingSession();
+        session.setTitle("Cross training");
+        session.setStartsAt(startsAt);
+        session.setCapacity(capacity);
+        return trainingSessionRepository.save(session);
+    }
+    
+    private int bookedCount(TrainingSession session) {
+        return trainingSessionRepository.findById(session.getId()).orElseThrow().getBookedCount();
+    }
+    
+    private int used(Adherent adherent) {
+        return weekUsageRepository.findById(new MembershipWeekUsage.Key(
+                adherent.getCurrentMembership().getId(), Membership.weekKey(monday)))
+            .map(MembershipWeekUsage::getUsed)
+            .orElse(0);
+    }
+    
+    private HttpStatus statusOf(Runnable booking) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, booking::run);
+        return HttpStatus.valueOf(e.getStatusCode().value());
+    }
+    
+    @Test
+    void testWeeklyLimitReached() {
+        Adherent adherent = adherent("limit@test.fr");
+        TrainingSession monday10 = session(monday.atTime(10, 0), 10);
+        TrainingSession tuesday10 = session(monday.plusDays(1).atTime(10, 0), 10);
+        TrainingSession friday18 = session(monday.plusDays(4).atTime(18, 0), 10);
+        
+        bookingService.bookForAdherent(monday10.getId(), adherent.getId());
+        bookingService.bookForAdherent(tuesday10.getId(), adherent.getId());
+        
+        assertEquals(HttpStatus.CONFLICT, statusOf(() -> bookingService.bookForAdherent(friday18.getId(), adherent.getId())));
+        assertEquals(2, used(adherent));
+        assertEquals(0, bookedCount(friday18));
+    }
+    
+    @Test
+    void testFullSessionRollsBackWeeklyUsage() {
+        Adherent first = adherent("first@test.fr");
+        Adherent second = adherent("second@test.fr");
+        TrainingSession session = session(monday.atTime(10, 0), 1);
+        
+        bookingService.bookForAdherent(session.getId(), first.getId());
+        
+        assertEquals(HttpStatus.CONFLICT, statusOf(() -> bookingService.bookForAdherent(session.getId(), second.getId())));
+        assertEquals(1, bookedCount(session));
+        assertEquals(0, used(second));
+    }
+    
+    @Test
+    void testDuplicateBookingIsRejectedWithoutCountingTwice() {
+        Adherent adherent = adherent("twice@test.fr");
+        TrainingSession session = session(monday.atTime(10, 0), 10);
+        
+        bookingService.bookForAdherent(session.getId(), adherent.getId());
+        
+        assertEquals(HttpStatus.CONFLICT, statusOf(() -> bookingService.bookForAdherent(session.getId(), adherent.getId())));
+        assertEquals(1, bookedCount(session));
+        assertEquals(1, used(adherent));
+    }
+    
+    @Test
+    void testCancelReleasesPlaceAndWeeklySession() {
+        Adherent adherent = adherent("cancel@test.fr");
+        TrainingSession session = session(monday.atTime(10, 0), 10);
+        BookingView booking = bookingService.bookForAdherent(session.getId(), adherent.getId());
+        
+        bookingService.cancel(booking.id(), "admin", true);
+        // Une seconde annulation ne rend rien de plus
+        bookingService.cancel(booking.id(), "admin", true);
+        
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(booking.id()).orElseThrow().getStatus());
+        assertEquals(0, bookedCount(session));
+        assertEquals(0, used(adherent));
+        
+        // La réinscription réutilise la ligne annulée
+        BookingView again = bookingService.bookForAdherent(session.getId(), adherent.getId());
+        assertEquals(booking.id(), again.id());
+        assertEquals(BookingStatus.CONFIRMED, again.status());
+        assertEquals(1, bookedCount(session));
+    }
+}
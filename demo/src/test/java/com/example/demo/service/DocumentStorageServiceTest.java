@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.StoredDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du stockage de documents et de sa limite de taille (413 via MaxUploadSizeExceededException)
+ */
+class DocumentStorageServiceTest {
+    
+    private static final int LIMIT = 64;
+    
+    @TempDir
+    Path root;
+    
+    private DocumentStorageService storage;
+    
+    @BeforeEach
+    void setUp() {
+        storage = new DocumentStorageService(root.toString(), DataSize.ofBytes(LIMIT));
+    }
+    
+    private long storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+    
+    @Test
+    void testInMemoryContentUpToLimitIsStored() throws IOException {
+        StoredDocument document = storage.store(new byte[LIMIT]);
+        
+        assertEquals(LIMIT, document.size());
+        assertTrue(storage.exists(document.ref()));
+        assertEquals(1, storedFiles());
+    }
+    
+    @Test
+    void testInMemoryContentOverLimitIsRejected() throws IOException {
+        // Chemin base64 des créations, PUT et PATCH JSON
+        assertThrows(MaxUploadSizeExceededException.class, () -> storage.store(new byte[LIMIT + 1]));
+        assertEquals(0, storedFiles());
+    }
+    
+    // ===== ENVOIS EN FLUX =====
+    
+    @Test
+    void testDeclaredLengthOverLimitIsRejected() {
+        assertDoesNotThrow(() -> storage.checkDeclaredSize(LIMIT));
+        // Longueur inconnue (-1, envoi chunked) : seule la lecture borne le flux
+        assertDoesNotThrow(() -> storage.checkDeclaredSize(-1));
+        assertThrows(MaxUploadSizeExceededException.class, () -> storage.checkDeclaredSize(LIMIT + 1));
+    }
+    
+    @Test
+    void testStreamLongerThanDeclaredLengthIsCutAtLimit() throws IOException {
+        // Content-Length annoncé sous la limite, mais le flux en transmet bien davantage
+        int declared = LIMIT / 2;
+        ByteArrayInputStream body = new ByteArrayInputStream(new byte[1024 * 1024]);
+        storage.checkDeclaredSize(declared);
+        
+        assertThrows(MaxUploadSizeExceededException.class, () -> storage.storeUpload(body));
+        
+        assertTrue(body.available() > 0, "le reste du flux ne doit pas être lu");
+        assertEquals(0, storedFiles());
+    }
+    
+    @Test
+    void testTemporaryFileIsRemovedWhenStreamFails() throws IOException {
+        InputStream failing = new InputStream() {
+            private int remaining = LIMIT / 2;
+            
+            @Override
+            public int read() throws IOException {
+                if (remaining-- == 0) {
+                    throw new IOException("connexion interrompue");
+                }
+                return 0;
+            }
+        };
+        
+        assertThrows(UncheckedIOException.class, () -> storage.storeUpload(failing));
+        assertEquals(0, storedFiles());
+    }
+    
+    @Test
+    void testStreamUpToLimitIsStored() throws IOException {
+        byte[] pdf = Arrays.copyOf("%PDF-1.7".getBytes(StandardCharsets.US_ASCII), LIMIT);
+        
+        StoredDocument document = storage.storeUpload(new ByteArrayInputStream(pdf));
+        
+        assertEquals(LIMIT, document.size());
+        assertEquals("application/pdf", document.contentType());
+        assertEquals(1, storedFiles());
+    }
+    
+    // ===== TYPE DE CONTENU =====
+    
+    @Test
+    void testUnrecognisedContentIsStoredAsOctetStream() {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.US_ASCII);
+        
+        StoredDocument document = storage.storeUpload(new ByteArrayInputStream(html));
+        
+        assertEquals("application/octet-stream", document.contentType());
+    }
+    
+    @Test
+    void testOnlyKnownTypesAreServedAsStored() {
+        assertEquals("image/png", DocumentStorageService.servedContentType("image/png"));
+        assertEquals("application/octet-stream", DocumentStorageService.servedContentType("text/html"));
+        assertEquals("application/octet-stream", DocumentStorageService.servedContentType("pas un type/;;"));
+        assertEquals("application/octet-stream", DocumentStorageService.servedContentType(null));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.EligibilityRow;
+import com.example.demo.model.entity.Adherent;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.model.enums.EligibilityReason;
+import com.example.demo.repository.AdherentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour l'instantané d'éligibilité en mémoire
+ */
+class EligibilitySnapshotTest {
+    
+    private final LocalDate today = LocalDate.now();
+    private AdherentRepository adherentRepository;
+    private EligibilitySnapshot snapshot;
+    
+    @BeforeEach
+    void setUp() {
+        adherentRepository = mock(AdherentRepository.class);
+        snapshot = new EligibilitySnapshot(adherentRepository);
+    }
+    
+    private EligibilityRow row(long id, AdherentStatus status, boolean certificate, LocalDate start, LocalDate end) {
+        return new EligibilityRow(id, status, certificate, null, 100 + id, start, end, 1L, null, null);
+    }
+    
+    @Test
+    void testEncodeDecodeKeepsDateRange() {
+        long packed = EligibilitySnapshot.encode(row(1L, AdherentStatus.ACTIVE, true, today, today.plusDays(10)));
+        
+        assertEquals(EligibilityReason.ELIGIBLE, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today)));
+        assertEquals(EligibilityReason.ELIGIBLE, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.plusDays(10))));
+        assertEquals(EligibilityReason.SUBSCRIPTION_NOT_ACTIVE, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.plusDays(11))));
+        assertEquals(EligibilityReason.SUBSCRIPTION_NOT_ACTIVE, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.minusDays(1))));
+    }
+    
+    @Test
+    void testCertificateExpiryBeforeMembershipEndIsReported() {
+        EligibilityRow row = new EligibilityRow(1L, AdherentStatus.ACTIVE, true, today.plusDays(5),
+            101L, today.minusDays(1), today.plusMonths(6), 1L, null, null);
+        long packed = EligibilitySnapshot.encode(row);
+        
+        assertEquals(EligibilityReason.ELIGIBLE, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.plusDays(5))));
+        assertEquals(EligibilityReason.MEDICAL_CERTIFICATE_EXPIRED, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.plusDays(6))));
+        assertEquals(row.evaluate(today.plusDays(6)), EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.plusDays(6))));
+    }
+    
+    @Test
+    void testOpenEndedMembershipStaysEligible() {
+        long packed = EligibilitySnapshot.encode(row(1L, AdherentStatus.ACTIVE, true, null, null));
+        
+        assertEquals(EligibilityReason.ELIGIBLE, EligibilitySnapshot.decode(packed, EligibilitySnapshot.encodeDay(today.plusYears(50))));
+    }
+    
+    @Test
+    void testLookupServesRebuiltEntriesWithoutDatabase() {
+        when(adherentRepository.streamEligibilityRows()).thenReturn(Stream.of(
+            row(1L, AdherentStatus.ACTIVE, true, today.minusDays(1), today.plusMonths(1)),
+            row(2L, AdherentStatus.SUSPENDED, true, today.minusDays(1), today.plusMonths(1)),
+            row(5000L, AdherentStatus.ACTIVE, false, today.minusDays(1), today.plusMonths(1))));
+        
+        assertEquals(3, snapshot.rebuild());
+        
+        assertTrue(snapshot.lookup(1L).eligible());
+        assertEquals(EligibilityReason.SUSPENDED, snapshot.lookup(2L).reason());
+        assertEquals(EligibilityReason.NO_MEDICAL_CERTIFICATE, snapshot.lookup(5000L).reason());
+        assertEquals(EligibilityReason.NOT_FOUND, snapshot.lookup(3L).reason());
+        assertEquals(EligibilityReason.NOT_FOUND, snapshot.lookup(9999L).reason());
+        verify(adherentRepository, never()).findEligibilityRows(any());
+    }
+    
+    @Test
+    void testUpdateOutsideTransactionIsVisibleImmediately() {
+        when(adherentRepository.streamEligibilityRows()).thenReturn(Stream.empty());
+        snapshot.rebuild();
+        
+        Adherent adherent = new Adherent();
+        adherent.setId(700L);
+        adherent.setStatus(AdherentStatus.DEACTIVATED);
+        snapshot.update(adherent);
+        
+        assertEquals(EligibilityReason.NOT_ACTIVE, snapshot.lookup(700L).reason());
+    }
+    
+    @Test
+    void testIdsFarBeyondKnownMaximumAreReadFromDatabase() {
+        when(adherentRepository.streamEligibilityRows()).thenReturn(Stream.of(
+            row(10L, AdherentStatus.ACTIVE, true, today.minusDays(1), today.plusMonths(1))));
+        when(adherentRepository.findEligibilityRows(any())).thenReturn(List.of(
+            row(5_000_000L, AdherentStatus.ACTIVE, true, today.minusDays(1), today.plusMonths(1))));
+        snapshot.rebuild();
+        
+        Adherent adherent = new Adherent();
+        adherent.setId(5_000_000L);
+        adherent.setStatus(AdherentStatus.DEACTIVATED);
+        snapshot.update(adherent);
+        
+        // Le tableau n'est pas agrandi : la lecture passe par la base
+        assertTrue(snapshot.lookup(5_000_000L).eligible());
+        assertTrue(EligibilitySnapshot.limitFor(10L) < EligibilitySnapshot.MAX_INDEX);
+        assertEquals(EligibilitySnapshot.MAX_INDEX, EligibilitySnapshot.limitFor(Long.MAX_VALUE / 4));
+    }
+    
+    @Test
+    void testPollChangesAppliesUpdatesFromOtherInstances() {
+        when(adherentRepository.streamEligibilityRows()).thenReturn(Stream.of(
+            row(1L, AdherentStatus.ACTIVE, true, today.minusDays(1), today.plusMonths(1))));
+        snapshot.rebuild();
+        assertTrue(snapshot.lookup(1L).eligible());
+        
+        // Suspension enregistrée par une autre instance
+        when(adherentRepository.findEligibilityRowsUpdatedSince(any())).thenReturn(List.of(
+            row(1L, AdherentStatus.SUSPENDED, true, today.minusDays(1), today.plusMonths(1))));
+        
+        assertEquals(1, snapshot.pollChanges());
+        assertEquals(EligibilityReason.SUSPENDED, snapshot.lookup(1L).reason());
+    }
+    
+    @Test
+    void testPollChangesWaitsForFirstRebuild() {
+        assertEquals(0, snapshot.pollChanges());
+        verify(adherentRepository, never()).findEligibilityRowsUpdatedSince(any());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import com.example.demo.model.entity.MembershipCounter;
+import com.example.demo.model.enums.AdherentStatus;
+import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.MembershipCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de la réconciliation des compteurs d'adhésion
+ */
+class MembershipCounterServiceTest {
+    
+    private MembershipCounterRepository counterRepository;
+    private AdherentRepository adherentRepository;
+    private MembershipCounterService service;
+    
+    @BeforeEach
+    void setUp() {
+        counterRepository = mock(MembershipCounterRepository.class);
+        adherentRepository = mock(AdherentRepository.class);
+        service = new MembershipCounterService(counterRepository, adherentRepository, Duration.ofSeconds(5));
+    }
+    
+    @Test
+    void testCountersAreLockedBeforeCounting() {
+        when(counterRepository.lockAll()).thenReturn(Arrays.stream(AdherentStatus.values())
+            .map(status -> new MembershipCounter(status, status == AdherentStatus.ACTIVE ? 8 : 0))
+            .toList());
+        when(adherentRepository.countGroupedByStatus())
+            .thenReturn(List.<Object[]>of(new Object[] {AdherentStatus.ACTIVE, 10L}));
+        
+        Map<AdherentStatus, Long> drift = service.reconcile();
+        
+        InOrder order = inOrder(counterRepository, adherentRepository);
+        order.verify(counterRepository).lockAll();
+        order.verify(adherentRepository).countGroupedByStatus();
+        order.verify(counterRepository).resetCount(eq(AdherentStatus.ACTIVE), eq(10L), any());
+        assertEquals(Map.of(AdherentStatus.ACTIVE, 2L), drift);
+        verify(counterRepository, never()).findById(any());
+    }
+    
+    @Test
+    void testMissingCounterRowIsCreated() {
+        when(counterRepository.lockAll()).thenReturn(List.of());
+        when(adherentRepository.countGroupedByStatus())
+            .thenReturn(List.<Object[]>of(new Object[] {AdherentStatus.SUSPENDED, 3L}));
+        
+        service.reconcile();
+        
+        verify(counterRepository, times(AdherentStatus.values().length)).save(any(MembershipCounter.class));
+        verify(counterRepository, never()).resetCount(any(), anyLong(), any());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.AdherentRepository;
+import com.example.demo.repository.SubscriptionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour le service ReportService
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportServiceTest {
+    
+    @Mock
+    private AdherentRepository adherentRepository;
+    
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+    
+    @Mock
+    private MembershipCounterService membershipCounterService;
+    
+    @InjectMocks
+    private ReportService reportService;
+    
+    @Test
+    void testCertificatesExpiringTodayOnly() {
+        LocalDate today = LocalDate.now();
+        when(adherentRepository.findCertificatesExpiringBetween(today, today)).thenReturn(List.of());
+        
+        assertTrue(reportService.getCertificatesExpiring(0).isEmpty());
+        verify(adherentRepository).findCertificatesExpiringBetween(today, today);
+    }
+    
+    @Test
+    void testCertificatesExpiringUpToOneYear() {
+        LocalDate today = LocalDate.now();
+        
+        reportService.getCertificatesExpiring(366);
+        
+        verify(adherentRepository).findCertificatesExpiringBetween(today, today.plusDays(366));
+    }
+    
+    @Test
+    void testCertificatesExpiringOutOfBoundsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> reportService.getCertificatesExpiring(-1));
+        assertThrows(IllegalArgumentException.class, () -> reportService.getCertificatesExpiring(367));
+        verify(adherentRepository, never()).findCertificatesExpiringBetween(any(), any());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import com.example.demo.model.dto.CatalogVersion;
+import com.example.demo.model.entity.Subscription;
+import com.example.demo.model.enums.SubscriptionType;
+import com.example.demo.repository.SubscriptionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du cache du catalogue : une modification faite par une autre instance est reprise
+ * au contrôle d'empreinte suivant
+ */
+class SubscriptionCatalogCacheTest {
+    
+    private static final CatalogVersion INITIAL = new CatalogVersion(1, 1L, LocalDateTime.of(2026, 1, 1, 8, 0));
+    
+    private SubscriptionRepository subscriptionRepository;
+    
+    @BeforeEach
+    void setUp() {
+        subscriptionRepository = mock(SubscriptionRepository.class);
+        when(subscriptionRepository.findCatalogVersion()).thenReturn(INITIAL);
+        when(subscriptionRepository.findAll(any(Sort.class))).thenReturn(List.of(subscription(29.9)));
+    }
+    
+    private SubscriptionCatalogCache cache(Duration versionCheck) {
+        return new SubscriptionCatalogCache(subscriptionRepository, new ObjectMapper().findAndRegisterModules(), versionCheck);
+    }
+    
+    private static Subscription subscription(double price) {
+        Subscription subscription = new Subscription();
+        subscription.setId(1L);
+        subscription.setType(SubscriptionType.BASIC);
+        subscription.setPrice(price);
+        return subscription;
+    }
+    
+    @Test
+    void testUnchangedVersionKeepsTheCachedCatalog() {
+        SubscriptionCatalogCache cache = cache(Duration.ZERO);
+        
+        SubscriptionCatalogCache.CatalogEntry first = cache.getAll();
+        SubscriptionCatalogCache.CatalogEntry second = cache.getAll();
+        
+        assertSame(first, second);
+        verify(subscriptionRepository, times(1)).findAll(any(Sort.class));
+    }
+    
+    @Test
+    void testChangeFromAnotherInstanceIsPickedUp() {
+        SubscriptionCatalogCache cache = cache(Duration.ZERO);
+        SubscriptionCatalogCache.CatalogEntry before = cache.getAll();
+        
+        // Prix modifié par une autre instance : aucune invalidation locale
+        when(subscriptionRepository.findCatalogVersion())
+            .thenReturn(new CatalogVersion(1, 1L, LocalDateTime.of(2026, 1, 2, 8, 0)));
+        when(subscriptionRepository.findAll(any(Sort.class))).thenReturn(List.of(subscription(34.9)));
+        SubscriptionCatalogCache.CatalogEntry after = cache.getAll();
+        
+        assertNotEquals(before.etag(), after.etag());
+        assertSame(after, cache.getAll());
+    }
+    
+    @Test
+    void testVersionIsNotCheckedWithinTheInterval() {
+        SubscriptionCatalogCache cache = cache(Duration.ofHours(1));
+        
+        cache.getAll();
+        cache.getAll();
+        cache.getAll();
+        
+        // Seule la lecture de l'empreinte à la construction
+        verify(subscriptionRepository, times(1)).findCatalogVersion();
+    }
+}
@@ -27,6 +27,20 @@ const AdherentDetails: React.FC<AdherentDetailsProps> = ({ adherent, onUpdate, o
     }
   };
 
+  const handleDownloadCertificate = async (): Promise<void> => {
+    try {
+      const blob = await adherentService.downloadMedicalCertificate(adherent.id);
+      const url = URL.createObjectURL(blob);
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `certificat_medical_${adherent.firstName}_${adherent.lastName}.pdf`;
+      link.click();
+      URL.revokeObjectURL(url);
+    } catch (err: any) {
+      alert('Erreur lors du téléchargement du certificat: ' + err.message);
+    }
+  };
+
   const handleOpenSubscriptionModal = async () => {
     await loadSubscriptions();
     setShowSubscriptionModal(true);
@@ -260,7 +274,7 @@ const AdherentDetails: React.FC<AdherentDetailsProps> = ({ adherent, onUpdate, o
             Certificat médical
           </h3>
           <div className="space-y-4">
-            {adherent.medicalCertificate ? (
+            {adherent.hasMedicalCertificate ? (
               <div className="bg-white/70 rounded-lg p-4">
                 <div className="flex items-center gap-3 mb-3">
                   <div className="w-10 h-10 bg-yellow-100 rounded-lg flex items-center justify-center">
@@ -273,16 +287,16 @@ const AdherentDetails: React.FC<AdherentDetailsProps> = ({ adherent, onUpdate, o
                     <p className="font-semibold text-green-600">✓ Certificat enregistré</p>
                   </div>
                 </div>
-                <a
-                  href={`data:application/pdf;base64,${adherent.medicalCertificate}`}
-                  download={`certificat_medical_${adherent.firstName}_${adherent.lastName}.pdf`}
+                <button
+                  type="button"
+                  onClick={handleDownloadCertificate}
                   className="inline-flex items-center gap-2 px-4 py-2 bg-yellow-600 text-white rounded-lg hover:bg-yellow-700 transition-colors font-semibold"
                 >
                   <svg className="w-5 h-5" fill="none" stroke="currentColor" viewBox="0 0 24 24">
                     <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M12 10v6m0 0l-3-3m3 3l3-3m2 8H7a2 2 0 01-2-2V5a2 2 0 012-2h5.586a1 1 0 01.707.293l5.414 5.414a1 1 0 01.293.707V19a2 2 0 01-2 2z" />
                   </svg>
                   Télécharger le certificat
-                </a>
+                </button>
               </div>
             ) : (
               <div className="bg-white/50 rounded-lg p-8 text-center">
@@ -359,7 +373,7 @@ const AdherentDetails: React.FC<AdherentDetailsProps> = ({ adherent, onUpdate, o
                   <div>
                     <label className="text-sm text-gray-500 font-medium">Statut de l'abonnement</label>
                     <p className="font-bold text-gray-800">
-                      {adherent.currentSubscription.active ? (
+                      {(adherent.currentMembership?.active ?? adherent.currentSubscription.active) ? (
                         <span className="text-green-600">✓ Actif</span>
                       ) : (
                         <span className="text-red-600">✗ Inactif</span>
@@ -395,8 +409,8 @@ const AdherentDetails: React.FC<AdherentDetailsProps> = ({ adherent, onUpdate, o
                   <div>
                     <label className="text-sm text-gray-500 font-medium">Date de début</label>
                     <p className="font-bold text-gray-800">
-                      {adherent.currentSubscription.startDate
-                        ? new Date(adherent.currentSubscription.startDate).toLocaleDateString('fr-FR')
+                      {(adherent.currentMembership?.startDate ?? adherent.currentSubscription.startDate)
+                        ? new Date((adherent.currentMembership?.startDate ?? adherent.currentSubscription.startDate)!).toLocaleDateString('fr-FR')
                         : '-'}
                     </p>
                   </div>
@@ -411,8 +425,8 @@ const AdherentDetails: React.FC<AdherentDetailsProps> = ({ adherent, onUpdate, o
                   <div>
                     <label className="text-sm text-gray-500 font-medium">Date de fin</label>
                     <p className="font-bold text-gray-800">
-                      {adherent.currentSubscription.endDate
-                        ? new Date(adherent.currentSubscription.endDate).toLocaleDateString('fr-FR')
+                      {(adherent.currentMembership?.endDate ?? adherent.currentSubscription.endDate)
+                        ? new Date((adherent.currentMembership?.endDate ?? adherent.currentSubscription.endDate)!).toLocaleDateString('fr-FR')
                         : '-'}
                     </p>
                   </div>
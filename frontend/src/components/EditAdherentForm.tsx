@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useEffect, useState } from 'react';
 import type { Adherent, AdherentUpdateRequest } from '../types';
 import { adherentService } from '../services/api';
 import { authService } from '../services/api';
@@ -12,9 +12,21 @@ interface EditAdherentFormProps {
 const EditAdherentForm: React.FC<EditAdherentFormProps> = ({ adherent, onSuccess, onCancel }): React.ReactElement => {
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
-  const [photoPreview, setPhotoPreview] = useState<string | null>(
-    adherent.photo ? `data:image/jpeg;base64,${adherent.photo}` : null
-  );
+  const [photoPreview, setPhotoPreview] = useState<string | null>(null);
+
+  useEffect(() => {
+    if (!adherent.hasPhoto) return;
+    let objectUrl: string | null = null;
+    adherentService.downloadPhoto(adherent.id)
+      .then((blob) => {
+        objectUrl = URL.createObjectURL(blob);
+        setPhotoPreview(objectUrl);
+      })
+      .catch(() => setPhotoPreview(null));
+    return () => {
+      if (objectUrl) URL.revokeObjectURL(objectUrl);
+    };
+  }, [adherent.id, adherent.hasPhoto]);
   const [formData, setFormData] = useState<AdherentUpdateRequest>({
     firstName: adherent.firstName,
     lastName: adherent.lastName,
@@ -58,25 +70,44 @@ const EditAdherentForm: React.FC<EditAdherentFormProps> = ({ adherent, onSuccess
     setError(null);
 
     try {
-      const payload = {
+      const payload: AdherentUpdateRequest = {
         ...formData,
         phoneNumber: formData.phoneNumber?.replace(/\s+/g, ''),
       };
       
+      // Seuls les champs modifiés sont envoyés (JSON Merge Patch)
+      const changes: AdherentUpdateRequest = {};
+      (Object.keys(payload) as (keyof AdherentUpdateRequest)[]).forEach((key) => {
+        const original = (adherent as unknown as Record<string, unknown>)[key];
+        if (payload[key] !== undefined && payload[key] !== original) {
+          changes[key] = payload[key];
+        }
+      });
+      
       // Déterminer si c'est le profil de l'utilisateur connecté ou un profil admin
       const userRole = authService.getUserRole();
       
-      // Si l'utilisateur est ADMIN, utiliser l'endpoint /api/adherents/{id}
-      if (userRole === 'ADMIN') {
-        await adherentService.updateAdherent(adherent.id, payload);
-      } else {
-        // Si c'est un utilisateur normal, utiliser /api/profile
-        await authService.updateProfile(payload);
+      if (Object.keys(changes).length > 0) {
+        // Si l'utilisateur est ADMIN, utiliser l'endpoint /api/adherents/{id}
+        if (userRole === 'ADMIN') {
+          await adherentService.patchAdherent(adherent.id, changes, adherent.version);
+        } else {
+          // Si c'est un utilisateur normal, utiliser /api/profile (identité non modifiable)
+          const profileChanges = { ...changes };
+          delete profileChanges.firstName;
+          delete profileChanges.lastName;
+          delete profileChanges.dateOfBirth;
+          await authService.patchProfile(profileChanges, adherent.version);
+        }
       }
       
       onSuccess();
     } catch (err: any) {
-      setError(err.response?.data?.message || err.message || 'Erreur lors de la modification');
+      if (err.response?.status === 409) {
+        setError('Cette fiche a été modifiée entre-temps : rechargez-la avant de réessayer');
+      } else {
+        setError(err.response?.data?.message || err.message || 'Erreur lors de la modification');
+      }
     } finally {
       setLoading(false);
     }
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type { Adherent, AdherentCreateRequest, AdherentUpdateRequest, PaginatedResponse, AuthResponse } from '../types';
+import type { Adherent, AdherentCreateRequest, AdherentUpdateRequest, CertificateExpiry, PaginatedResponse, AuthResponse } from '../types';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
@@ -19,6 +19,12 @@ apiClient.interceptors.request.use((config) => {
   return config;
 });
 
+// En-têtes d'un JSON Merge Patch ; la version lue devient l'ETag attendu
+const mergePatchHeaders = (version?: number) => ({
+  'Content-Type': 'application/merge-patch+json',
+  ...(version !== undefined ? { 'If-Match': `"${version}"` } : {}),
+});
+
 // Intercepteur de réponse pour gérer les erreurs 401 (token expiré)
 apiClient.interceptors.response.use(
   (response) => response,
@@ -75,11 +81,22 @@ export const authService = {
     });
     return response.data;
   },
+  // Modification partielle du profil (JSON Merge Patch, If-Match = version lue)
+  patchProfile: async (changes: AdherentUpdateRequest, version?: number): Promise<Adherent> => {
+    const response = await apiClient.patch<Adherent>('/profile', changes, {
+      headers: mergePatchHeaders(version),
+    });
+    return response.data;
+  },
   changePassword: async (oldPassword: string, newPassword: string): Promise<{ message: string }> => {
-    const response = await apiClient.put<{ message: string }>('/profile/password', {
+    const response = await apiClient.put<{ message: string; token?: string }>('/profile/password', {
       oldPassword,
       newPassword,
     });
+    // Les anciens tokens sont révoqués : conserver celui renvoyé par le serveur
+    if (response.data.token) {
+      localStorage.setItem('token', response.data.token);
+    }
     return response.data;
   },
   getUserRole: (): string | null => {
@@ -133,6 +150,14 @@ export const adherentService = {
     return response.data;
   },
 
+  // Modification partielle (JSON Merge Patch) : 409 si l'adhérent a changé depuis sa lecture
+  patchAdherent: async (id: number, changes: AdherentUpdateRequest, version?: number): Promise<Adherent> => {
+    const response = await apiClient.patch<Adherent>(`/adherents/${id}`, changes, {
+      headers: mergePatchHeaders(version),
+    });
+    return response.data;
+  },
+
   // Supprimer un adhérent
   deleteAdherent: async (id: number): Promise<void> => {
     await apiClient.delete(`/adherents/${id}`);
@@ -188,6 +213,18 @@ export const adherentService = {
     return response.data;
   },
 
+  // Télécharger le certificat médical (flux binaire)
+  downloadMedicalCertificate: async (id: number): Promise<Blob> => {
+    const response = await apiClient.get<Blob>(`/adherents/${id}/medical-certificate`, { responseType: 'blob' });
+    return response.data;
+  },
+
+  // Télécharger la photo (flux binaire)
+  downloadPhoto: async (id: number): Promise<Blob> => {
+    const response = await apiClient.get<Blob>(`/adherents/${id}/photo`, { responseType: 'blob' });
+    return response.data;
+  },
+
   // Créer une abonnement
   createSubscription: async (data: { type: string; price: number; durationMonths?: number; startDate?: string }): Promise<any> => {
     const response = await apiClient.post('/subscriptions', data);
@@ -269,6 +306,14 @@ export const adherentService = {
     return response.data;
   },
 
+  // Certificats médicaux expirant dans les prochains jours
+  getCertificatesExpiring: async (days = 30): Promise<CertificateExpiry[]> => {
+    const response = await apiClient.get<CertificateExpiry[]>('/reports/certificates-expiring', {
+      params: { days }
+    });
+    return response.data;
+  },
+
   // ===== GESTION DES RÔLES =====
   
   // Assigner un rôle à un utilisateur
@@ -21,13 +21,20 @@ export interface Subscription {
   type: SubscriptionTypeType;
   price: number;
   weeklySessions?: number;
-  weeklySessionsUsed?: number;
   durationMonths?: number;
   startDate?: string; // ISO date
   endDate?: string; // ISO date
   active: boolean;
 }
 
+export interface Membership {
+  id: number;
+  startDate: string; // ISO date
+  endDate?: string; // ISO date
+  weeklySessionsLimit: number;
+  active: boolean;
+}
+
 export interface Adherent {
   id: number;
   firstName: string;
@@ -41,12 +48,21 @@ export interface Adherent {
   country: string;
   status: AdherentStatusType;
   currentSubscription: Subscription | null;
-  medicalCertificate?: string; // base64
-  photo?: string; // base64
+  currentMembership?: Membership | null;
+  hasMedicalCertificate?: boolean;
+  medicalCertificateSize?: number;
+  medicalCertificateContentType?: string;
+  medicalCertificateUploadedAt?: string;
+  medicalCertificateIssuedOn?: string;
+  medicalCertificateExpiresOn?: string;
+  hasPhoto?: boolean;
+  photoSize?: number;
+  photoContentType?: string;
   createdAt: string;
   updatedAt: string;
   suspendedReason?: string;
   suspendedDate?: string;
+  version?: number;
 }
 
 export interface AdherentCreateRequest {
@@ -60,6 +76,8 @@ export interface AdherentCreateRequest {
   postalCode: string;
   country: string;
   medicalCertificate: string; // base64
+  medicalCertificateIssuedOn?: string;
+  medicalCertificateExpiresOn?: string;
   photo?: string; // base64
   status?: AdherentStatusType;
 }
@@ -76,6 +94,8 @@ export interface AdherentUpdateRequest {
   country?: string;
   photo?: string; // base64
   medicalCertificate?: string; // base64
+  medicalCertificateIssuedOn?: string;
+  medicalCertificateExpiresOn?: string;
 }
 
 export interface PaginatedResponse<T> {
@@ -89,3 +109,12 @@ export interface PaginatedResponse<T> {
 export interface AuthResponse {
   token: string;
 }
+
+export interface CertificateExpiry {
+  adherentId: number;
+  firstName: string;
+  lastName: string;
+  email: string;
+  issuedOn?: string;
+  expiresOn: string;
+}